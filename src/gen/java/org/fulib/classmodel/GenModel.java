@@ -21,7 +21,7 @@ public class GenModel implements ClassModelDecorator
       Object defaultCollectionType;
 
       @Description("the default property style for attributes and roles.\n"
-                   + "Currently, only {@link Type#POJO}, {@link Type#BEAN} and {@link Type#JAVA_FX} are supported.")
+                   + "Currently, only {@link Type#POJO}, {@link Type#BEAN}, {@link Type#JAVA_FX} and {@link Type#LISTENER} are supported.")
       @InitialValue("\"POJO\"")
       String defaultPropertyStyle;
 
@@ -36,7 +36,7 @@ public class GenModel implements ClassModelDecorator
       String name;
 
       @Description("the default property style for attributes and roles.\n"
-                   + "Currently, only {@link Type#POJO}, {@link Type#BEAN} and {@link Type#JAVA_FX} are supported.")
+                   + "Currently, only {@link Type#POJO}, {@link Type#BEAN}, {@link Type#JAVA_FX} and {@link Type#LISTENER} are supported.")
       String propertyStyle;
 
       @Description("a boolean indicating whether this attribute was modified. For internal use only.")
@@ -92,7 +92,7 @@ public class GenModel implements ClassModelDecorator
       String initialization;
 
       @Description("the property style.\n"
-                   + "Currently, only {@link Type#POJO}, {@link Type#BEAN} and {@link Type#JAVA_FX} are supported.")
+                   + "Currently, only {@link Type#POJO}, {@link Type#BEAN}, {@link Type#JAVA_FX} and {@link Type#LISTENER} are supported.")
       String propertyStyle;
 
       @Description("a boolean indicating whether this attribute was modified. For internal use only.")
@@ -130,7 +130,7 @@ public class GenModel implements ClassModelDecorator
       boolean aggregation;
 
       @Description("the property style.\n"
-                   + "Currently, only {@link Type#POJO}, {@link Type#BEAN} and {@link Type#JAVA_FX} are supported.")
+                   + "Currently, only {@link Type#POJO}, {@link Type#BEAN}, {@link Type#JAVA_FX} and {@link Type#LISTENER} are supported.")
       String propertyStyle;
 
       @Description("the description of this role, used for generating JavaDocs")
@@ -0,0 +1,171 @@
+package org.fulib;
+
+import org.fulib.builder.ClassModelManager;
+import org.fulib.builder.Type;
+import org.fulib.classmodel.ClassModel;
+import org.fulib.classmodel.Clazz;
+import org.fulib.classmodel.CollectionType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic class models for benchmarks.
+ */
+public class BenchmarkModels
+{
+   public static final String PACKAGE_NAME = "org.fulib.bench";
+
+   /**
+    * Builds a model with the given number of classes.
+    * Every class has a few attributes of different kinds, a method, and associations to its neighbours;
+    * every third class uses bean properties.
+    *
+    * @param srcFolder
+    *    the source folder of the model
+    * @param classCount
+    *    the number of classes
+    *
+    * @return the class model
+    */
+   public static ClassModel build(String srcFolder, int classCount)
+   {
+      return build(srcFolder, classCount, 4, 2, 1);
+   }
+
+   /**
+    * Builds a model with the given number of classes, attributes, roles and methods.
+    * Attributes cycle through a string, an int, a double and a string list attribute;
+    * roles alternate between a to-one chain to the previous class and a to-many tree below the class at half the index.
+    * Every third class uses bean properties.
+    * {@code build(srcFolder, classCount, 4, 2, 1)} is the model of {@link #build(String, int)}.
+    *
+    * @param srcFolder
+    *    the source folder of the model
+    * @param classCount
+    *    the number of classes
+    * @param attributeCount
+    *    the number of attributes per class
+    * @param roleCount
+    *    the number of associations per class (except the first)
+    * @param methodCount
+    *    the number of methods per class
+    *
+    * @return the class model
+    */
+   public static ClassModel build(String srcFolder, int classCount, int attributeCount, int roleCount,
+      int methodCount)
+   {
+      final ClassModelManager mm = new ClassModelManager().setMainJavaDir(srcFolder).setPackageName(PACKAGE_NAME);
+      final Clazz[] classes = new Clazz[classCount];
+
+      for (int i = 0; i < classCount; i++)
+      {
+         final Clazz clazz = mm.haveClass("Class" + i);
+         clazz.setPropertyStyle(i % 3 == 0 ? Type.BEAN : Type.POJO);
+
+         for (int a = 0; a < attributeCount; a++)
+         {
+            final String suffix = suffix(a / 4);
+            switch (a % 4)
+            {
+            case 0:
+               mm.haveAttribute(clazz, "name" + suffix, Type.STRING);
+               break;
+            case 1:
+               mm.haveAttribute(clazz, "count" + suffix, Type.INT, "0");
+               break;
+            case 2:
+               mm.haveAttribute(clazz, "weight" + suffix, Type.DOUBLE);
+               break;
+            default:
+               mm.haveAttribute(clazz, "tags" + suffix, Type.STRING).setCollectionType(CollectionType.ArrayList);
+               break;
+            }
+         }
+
+         for (int m = 0; m < methodCount; m++)
+         {
+            final String body = attributeCount >= 2 ?
+               "return prefix + this.getName() + this.getCount();" :
+               "return prefix;";
+            mm.haveMethod(clazz, "public String describe" + suffix(m) + "(String prefix)", body);
+         }
+
+         classes[i] = clazz;
+      }
+
+      for (int i = 1; i < classCount; i++)
+      {
+         for (int r = 0; r < roleCount; r++)
+         {
+            final String suffix = suffix(r / 2);
+            if (r % 2 == 0)
+            {
+               mm.associate(classes[i - 1], "next" + suffix, Type.ONE, classes[i], "previous" + suffix, Type.ONE);
+            }
+            else
+            {
+               mm.associate(classes[i / 2], "children" + i + suffix, Type.MANY, classes[i], "parent" + i + suffix,
+                            Type.ONE);
+            }
+         }
+      }
+
+      return mm.getClassModel();
+   }
+
+   private static String suffix(int index)
+   {
+      // the first member of every kind has no suffix, so the default model keeps its historical names
+      return index == 0 ? "" : "_" + index;
+   }
+
+   /**
+    * Generates the given model and reads the generated files.
+    *
+    * @param folder
+    *    the folder to generate into
+    * @param classCount
+    *    the number of classes
+    *
+    * @return the generated source files
+    *
+    * @throws IOException
+    *    if reading the generated files fails
+    */
+   public static List<Path> generate(Path folder, int classCount) throws IOException
+   {
+      final ClassModel model = build(folder.toString(), classCount);
+      Fulib.generator().generate(model);
+
+      try (final Stream<Path> files = Files.walk(folder))
+      {
+         return files.filter(path -> path.toString().endsWith(".java")).sorted().collect(Collectors.toList());
+      }
+   }
+
+   public static void delete(Path folder) throws IOException
+   {
+      if (!Files.exists(folder))
+      {
+         return;
+      }
+
+      final List<Path> paths;
+      try (final Stream<Path> files = Files.walk(folder))
+      {
+         paths = files.collect(Collectors.toCollection(ArrayList::new));
+      }
+      // children first
+      for (int i = paths.size() - 1; i >= 0; i--)
+      {
+         Files.deleteIfExists(paths.get(i));
+      }
+   }
+}
@@ -0,0 +1,221 @@
+package org.fulib;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.fulib.classmodel.ClassModel;
+import org.fulib.classmodel.Clazz;
+import org.fulib.classmodel.FileFragmentMap;
+import org.fulib.parser.FragmentMapBuilder;
+import org.fulib.util.Generator4ClassFile;
+import org.fulib.yaml.YamlIdMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the stages of the generator pipeline separately on synthetic models of configurable size:
+ * end-to-end generation, parsing existing files, rendering the templates, compressing and writing the files,
+ * and loading and saving the YAML model.
+ * Run with {@code gradlew jmh -PjmhIncludes=GeneratorBenchmark}.
+ * The results are written as JSON to {@code build/reports/jmh/results-<version>.json},
+ * so runs of different versions can be compared side by side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark
+{
+   @Param({ "10", "100" })
+   public int classCount;
+
+   @Param({ "4", "16" })
+   public int attributeCount;
+
+   @Param({ "2" })
+   public int roleCount;
+
+   @Param({ "1" })
+   public int methodCount;
+
+   private Path folder;
+   private ClassModel model;
+   private String yaml;
+
+   private final List<String> fileNames = new ArrayList<>();
+   private final List<String> contents = new ArrayList<>();
+
+   @Setup
+   public void setup() throws IOException
+   {
+      this.folder = Files.createTempDirectory("fulib-generator-benchmark");
+      this.model = this.buildModel(this.folder);
+      Fulib.generator().generate(this.model);
+
+      final Generator4ClassFile generator = new Generator4ClassFile();
+      for (final Clazz clazz : this.model.getClasses())
+      {
+         final String fileName = generator.getSourceFileName(clazz);
+         this.fileNames.add(fileName);
+         this.contents.add(new String(Files.readAllBytes(Paths.get(fileName)), StandardCharsets.UTF_8));
+      }
+
+      this.yaml = new YamlIdMap(ClassModel.class.getPackage().getName()).encode(this.model);
+   }
+
+   @TearDown
+   public void tearDown() throws IOException
+   {
+      BenchmarkModels.delete(this.folder);
+   }
+
+   private ClassModel buildModel(Path srcFolder)
+   {
+      return BenchmarkModels.build(srcFolder.toString(), this.classCount, this.attributeCount, this.roleCount,
+                                   this.methodCount);
+   }
+
+   // =============== Generator ===============
+
+   /**
+    * Generates the model into an empty folder, like the first build of a project.
+    */
+   @Benchmark
+   public void generate(EmptyFolder empty)
+   {
+      Fulib.generator().generate(this.buildModel(empty.folder));
+   }
+
+   /**
+    * Generates the model into the folder it was already generated into, like every further build of a project.
+    */
+   @Benchmark
+   public void regenerate()
+   {
+      Fulib.generator().generate(this.buildModel(this.folder));
+   }
+
+   // =============== Stages ===============
+
+   @Benchmark
+   public void parse(Blackhole blackhole)
+   {
+      for (int i = 0; i < this.contents.size(); i++)
+      {
+         final String fileName = this.fileNames.get(i);
+         blackhole.consume(FragmentMapBuilder.parse(fileName, CharStreams.fromString(this.contents.get(i), fileName)));
+      }
+   }
+
+   @Benchmark
+   public void render(Blackhole blackhole)
+   {
+      final Generator4ClassFile generator = new Generator4ClassFile();
+      for (final Clazz clazz : this.model.getClasses())
+      {
+         final FileFragmentMap fragmentMap = new FileFragmentMap(generator.getSourceFileName(clazz));
+         generator.generate(clazz, fragmentMap);
+         blackhole.consume(fragmentMap);
+      }
+   }
+
+   @Benchmark
+   public void compressBlankLines(RenderedFiles rendered)
+   {
+      for (final FileFragmentMap fragmentMap : rendered.fragmentMaps)
+      {
+         fragmentMap.compressBlankLines();
+      }
+   }
+
+   @Benchmark
+   public void writeFile(RenderedFiles rendered)
+   {
+      for (final FileFragmentMap fragmentMap : rendered.fragmentMaps)
+      {
+         fragmentMap.writeFile();
+      }
+   }
+
+   @Benchmark
+   public String saveYaml()
+   {
+      return new YamlIdMap(ClassModel.class.getPackage().getName()).encode(this.model);
+   }
+
+   @Benchmark
+   public Object loadYaml()
+   {
+      return new YamlIdMap(ClassModel.class.getPackage().getName()).decode(this.yaml);
+   }
+
+   // =============== Classes ===============
+
+   /**
+    * A fresh, empty source folder for every invocation.
+    */
+   @State(Scope.Thread)
+   public static class EmptyFolder
+   {
+      Path folder;
+
+      @Setup(Level.Invocation)
+      public void setup() throws IOException
+      {
+         this.folder = Files.createTempDirectory("fulib-generator-benchmark");
+      }
+
+      @TearDown(Level.Invocation)
+      public void tearDown() throws IOException
+      {
+         BenchmarkModels.delete(this.folder);
+      }
+   }
+
+   /**
+    * Freshly rendered fragment maps for every invocation, because compressing and writing changes them.
+    * They are written to their own folder, so writing does not interfere with the other benchmarks.
+    */
+   @State(Scope.Thread)
+   public static class RenderedFiles
+   {
+      Path folder;
+      ClassModel model;
+      final List<FileFragmentMap> fragmentMaps = new ArrayList<>();
+
+      @Setup(Level.Trial)
+      public void setupTrial(GeneratorBenchmark benchmark) throws IOException
+      {
+         this.folder = Files.createTempDirectory("fulib-generator-benchmark");
+         this.model = benchmark.buildModel(this.folder);
+      }
+
+      @Setup(Level.Invocation)
+      public void setup()
+      {
+         this.fragmentMaps.clear();
+         final Generator4ClassFile generator = new Generator4ClassFile();
+         for (final Clazz clazz : this.model.getClasses())
+         {
+            final FileFragmentMap fragmentMap = new FileFragmentMap(generator.getSourceFileName(clazz));
+            generator.generate(clazz, fragmentMap);
+            this.fragmentMaps.add(fragmentMap);
+         }
+      }
+
+      @TearDown(Level.Trial)
+      public void tearDown() throws IOException
+      {
+         BenchmarkModels.delete(this.folder);
+      }
+   }
+}
@@ -0,0 +1,70 @@
+package org.fulib.bench.studyright.pojo.tables;
+
+import org.fulib.bench.studyright.pojo.PojoBenchmark;
+import org.fulib.bench.studyright.pojo.Student;
+import org.fulib.bench.studyright.pojo.University;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures pipelines of the generated tables of the reference model in eager, lazy and parallel mode.
+ * The object graph is built by {@link PojoBenchmark#build(int)}, which the build generates from the same template as
+ * the other runtime benchmarks.
+ * Run with {@code gradlew jmh -PjmhIncludes=TablesBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TablesBenchmark
+{
+   @Param({ "10000", "100000" })
+   public int studentCount;
+
+   @Param({ "eager", "lazy", "parallel" })
+   public String mode;
+
+   private University uni;
+
+   @Setup
+   public void setup()
+   {
+      this.uni = PojoBenchmark.build(this.studentCount);
+   }
+
+   private UniversityTable table()
+   {
+      final UniversityTable table = new UniversityTable(this.uni);
+      table.getStore().setLazy("lazy".equals(this.mode));
+      table.getStore().setParallel("parallel".equals(this.mode));
+      return table;
+   }
+
+   /**
+    * Expands to the students and their friends, filters by credits, and sums up the credits of the friends.
+    */
+   @Benchmark
+   public int expandFilterSum()
+   {
+      final StudentTable students = this.table().expandStudents("Student");
+      students.filter(student -> student.getCredits() >= 50);
+      return students.expandFriends("Friend").expandCredits("Credits").sum();
+   }
+
+   /**
+    * Expands to the assignments in the room of every student, keeps those the student has done,
+    * and filters the rows by their row view.
+    */
+   @Benchmark
+   public int hasDone()
+   {
+      final StudentTable students = this.table().expandStudents("Student");
+      final AssignmentTable assignments = students.expandIn("Room").expandAssignments("Assignment");
+      students.hasDone(assignments);
+      students.filterRow(row -> ((Student) row.get("Student")).getCredits() % 2 == 0);
+      return assignments.expandPoints("Points").count();
+   }
+}
@@ -0,0 +1,56 @@
+package org.fulib.builder;
+
+import org.fulib.BenchmarkModels;
+import org.fulib.classmodel.ClassModel;
+import org.fulib.classmodel.Clazz;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building large class models with the {@link ClassModelManager}, and looking up their members by name.
+ * Run with {@code gradlew jmh -PjmhIncludes=ClassModelBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassModelBenchmark
+{
+   @Param({ "1000", "5000" })
+   public int classCount;
+
+   private ClassModel model;
+   private String[] classNames;
+
+   @Setup
+   public void setup()
+   {
+      this.model = BenchmarkModels.build("src/main/java", this.classCount);
+      this.classNames = new String[this.classCount];
+      for (int i = 0; i < this.classCount; i++)
+      {
+         this.classNames[i] = "Class" + i;
+      }
+   }
+
+   @Benchmark
+   public ClassModel build()
+   {
+      return BenchmarkModels.build("src/main/java", this.classCount);
+   }
+
+   @Benchmark
+   public void lookup(Blackhole blackhole)
+   {
+      for (final String name : this.classNames)
+      {
+         final Clazz clazz = this.model.getClazz(name);
+         blackhole.consume(clazz.getAttribute("weight"));
+         blackhole.consume(clazz.getRole("next"));
+      }
+   }
+}
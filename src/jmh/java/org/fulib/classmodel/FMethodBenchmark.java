@@ -0,0 +1,69 @@
+package org.fulib.classmodel;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures declaration and signature access for a class with many methods,
+ * as done repeatedly during generation and model comparison.
+ * Run with {@code gradlew jmh -PjmhIncludes=FMethodBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FMethodBenchmark
+{
+   @Param({ "100", "500" })
+   public int methodCount;
+
+   private final List<String> declarations = new ArrayList<>();
+   private Clazz clazz;
+
+   @Setup
+   public void setup()
+   {
+      this.clazz = new Clazz().setName("Foo");
+      for (int i = 0; i < this.methodCount; i++)
+      {
+         final String declaration =
+            "public <T extends Comparable<T>> java.util.List<T> method" + i + "(T first, java.util.Map<String, T> map, int... rest)";
+         this.declarations.add(declaration);
+         new FMethod().setClazz(this.clazz).setDeclaration(declaration);
+      }
+   }
+
+   @Benchmark
+   public void getSignature(Blackhole blackhole)
+   {
+      for (final FMethod method : this.clazz.getMethods())
+      {
+         blackhole.consume(method.getSignature());
+      }
+   }
+
+   @Benchmark
+   public void getDeclaration(Blackhole blackhole)
+   {
+      for (final FMethod method : this.clazz.getMethods())
+      {
+         blackhole.consume(method.getDeclaration());
+      }
+   }
+
+   @Benchmark
+   public void setDeclaration(Blackhole blackhole)
+   {
+      final Clazz copy = new Clazz().setName("Bar");
+      for (final String declaration : this.declarations)
+      {
+         blackhole.consume(new FMethod().setClazz(copy).setDeclaration(declaration));
+      }
+   }
+}
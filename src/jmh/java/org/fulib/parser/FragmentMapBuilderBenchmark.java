@@ -0,0 +1,84 @@
+package org.fulib.parser;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.fulib.BenchmarkModels;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares SLL-first two-stage parsing with plain LL parsing.
+ * Run with {@code gradlew jmh -PjmhIncludes=FragmentMapBuilderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FragmentMapBuilderBenchmark
+{
+   private static final int GENERATED_CLASS_COUNT = 100;
+
+   /**
+    * {@code AllInOneJava7} parses the test resource of the same name,
+    * {@code generated} parses all classes of a generated synthetic model.
+    */
+   @Param({ "AllInOneJava7", "generated" })
+   public String corpus;
+
+   @Param({ "true", "false" })
+   public boolean sllFirst;
+
+   private final List<String> fileNames = new ArrayList<>();
+   private final List<String> contents = new ArrayList<>();
+
+   @Setup
+   public void setup() throws IOException
+   {
+      if ("generated".equals(this.corpus))
+      {
+         final Path folder = Files.createTempDirectory("fulib-parse-benchmark");
+         try
+         {
+            for (final Path file : BenchmarkModels.generate(folder, GENERATED_CLASS_COUNT))
+            {
+               this.fileNames.add(file.getFileName().toString());
+               this.contents.add(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            }
+         }
+         finally
+         {
+            BenchmarkModels.delete(folder);
+         }
+         return;
+      }
+
+      final String fileName = this.corpus + ".java";
+      try (final InputStream input = FragmentMapBuilderBenchmark.class.getResourceAsStream(fileName))
+      {
+         this.fileNames.add(fileName);
+         this.contents.add(CharStreams.fromStream(input, StandardCharsets.UTF_8).toString());
+      }
+   }
+
+   @Benchmark
+   public void parse(Blackhole blackhole)
+   {
+      for (int i = 0; i < this.contents.size(); i++)
+      {
+         final String fileName = this.fileNames.get(i);
+         blackhole.consume(
+            FragmentMapBuilder.parse(fileName, CharStreams.fromString(this.contents.get(i), fileName), null,
+                                     this.sllFirst));
+      }
+   }
+}
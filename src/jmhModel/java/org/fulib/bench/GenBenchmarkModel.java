@@ -0,0 +1,104 @@
+package org.fulib.bench;
+
+import org.fulib.Fulib;
+import org.fulib.builder.ClassModelManager;
+import org.fulib.builder.Type;
+import org.fulib.classmodel.ClassModel;
+import org.fulib.classmodel.Clazz;
+import org.stringtemplate.v4.ST;
+import org.stringtemplate.v4.STGroupFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates the reference model for the runtime benchmarks in the pojo, bean and JavaFX variants.
+ * The model is similar to the studyright model of the tests:
+ * universities aggregate rooms, rooms aggregate assignments, and students are linked to all of them.
+ * The pojo variant also gets tables.
+ * All variants get the same benchmark, rendered from {@code PropertyBenchmark.stg} into their packages;
+ * the benchmarks that fire property changes are only rendered for the bean and JavaFX variants.
+ * <p>
+ * The build runs this before compiling the benchmarks, see the {@code generateBenchmarkModel} task.
+ */
+public class GenBenchmarkModel
+{
+   public static final String PACKAGE_NAME = "org.fulib.bench.studyright";
+
+   public static void main(String[] args) throws IOException
+   {
+      final String srcFolder = args[0];
+
+      final ClassModel pojoModel = build(srcFolder, PACKAGE_NAME + ".pojo", Type.POJO);
+      Fulib.generator().generate(pojoModel);
+      Fulib.tablesGenerator().generate(pojoModel);
+
+      Fulib.generator().generate(build(srcFolder, PACKAGE_NAME + ".bean", Type.BEAN));
+      Fulib.generator().generate(build(srcFolder, PACKAGE_NAME + ".javafx", Type.JAVA_FX));
+
+      final STGroupFile group = new STGroupFile("org/fulib/bench/PropertyBenchmark.stg");
+      generateBenchmark(group, srcFolder, PACKAGE_NAME + ".pojo", "PojoBenchmark", "pojo", false);
+      generateBenchmark(group, srcFolder, PACKAGE_NAME + ".bean", "BeanBenchmark", "bean", true);
+      generateBenchmark(group, srcFolder, PACKAGE_NAME + ".javafx", "JavaFXBenchmark", "JavaFX", true);
+   }
+
+   private static void generateBenchmark(STGroupFile group, String srcFolder, String packageName, String className,
+      String styleName, boolean listeners) throws IOException
+   {
+      final ST st = group.getInstanceOf("PropertyBenchmark");
+      st.add("packageName", packageName);
+      st.add("className", className);
+      st.add("styleName", styleName);
+      st.add("listeners", listeners);
+
+      final Path path = Paths.get(srcFolder, packageName.replace('.', '/'), className + ".java");
+      Files.createDirectories(path.getParent());
+      Files.write(path, st.render().getBytes(StandardCharsets.UTF_8));
+   }
+
+   /**
+    * Builds the reference model.
+    *
+    * @param srcFolder
+    *    the source folder of the model
+    * @param packageName
+    *    the package of the model
+    * @param propertyStyle
+    *    the property style of all classes
+    *
+    * @return the class model
+    */
+   public static ClassModel build(String srcFolder, String packageName, String propertyStyle)
+   {
+      final ClassModelManager mm = new ClassModelManager().setMainJavaDir(srcFolder).setPackageName(packageName);
+      mm.getClassModel().setDefaultPropertyStyle(propertyStyle);
+
+      final Clazz university = mm.haveClass("University");
+      mm.haveAttribute(university, "name", Type.STRING);
+
+      final Clazz room = mm.haveClass("Room");
+      mm.haveAttribute(room, "roomNo", Type.STRING);
+      mm.haveAttribute(room, "topic", Type.STRING);
+
+      final Clazz assignment = mm.haveClass("Assignment");
+      mm.haveAttribute(assignment, "topic", Type.STRING);
+      mm.haveAttribute(assignment, "points", Type.INT);
+
+      final Clazz student = mm.haveClass("Student");
+      mm.haveAttribute(student, "name", Type.STRING);
+      mm.haveAttribute(student, "studentId", Type.STRING);
+      mm.haveAttribute(student, "credits", Type.INT);
+
+      mm.associate(university, "rooms", Type.MANY, room, "uni", Type.ONE).setAggregation(true);
+      mm.associate(room, "assignments", Type.MANY, assignment, "room", Type.ONE).setAggregation(true);
+      mm.associate(university, "students", Type.MANY, student, "uni", Type.ONE);
+      mm.associate(student, "in", Type.ONE, room, "students", Type.MANY);
+      mm.associate(student, "done", Type.MANY, assignment, "students", Type.MANY);
+      mm.associate(student, "friends", Type.MANY, student, "friends", Type.MANY);
+
+      return mm.getClassModel();
+   }
+}
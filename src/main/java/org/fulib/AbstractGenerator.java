@@ -2,17 +2,26 @@ package org.fulib;
 
 import org.fulib.classmodel.*;
 import org.fulib.parser.FragmentMapBuilder;
+import org.fulib.parser.FragmentMapCache;
 import org.fulib.util.AbstractGenerator4ClassFile;
+import org.fulib.util.FlightRecorderEvents;
+import org.fulib.util.SourceFiles;
+import org.fulib.util.Validator;
 import org.fulib.yaml.YamlIdMap;
+import org.stringtemplate.v4.AutoIndentWriter;
+import org.stringtemplate.v4.ST;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,6 +44,23 @@ public abstract class AbstractGenerator
 
    private String customTemplateFile;
 
+   private Executor executor;
+
+   private boolean skipUnchangedFiles;
+
+   private boolean atomicWrites;
+
+   private boolean incremental;
+
+   private FragmentMapCache parseCache;
+
+   private MetricsListener metricsListener;
+
+   private final AtomicInteger writtenFileCount = new AtomicInteger();
+   private final AtomicInteger skippedFileCount = new AtomicInteger();
+   private final AtomicInteger upToDateClassCount = new AtomicInteger();
+   private final Set<String> writtenFiles = ConcurrentHashMap.newKeySet();
+
    // =============== Properties ===============
 
    public String getCustomTemplateFile()
@@ -62,6 +88,247 @@ public abstract class AbstractGenerator
       return this;
    }
 
+   /**
+    * @return the executor used for parallel generation, or {@code null} if classes are generated sequentially
+    *
+    * @since 1.6
+    */
+   public Executor getExecutor()
+   {
+      return this.executor;
+   }
+
+   /**
+    * Sets the executor used to parse, render and write the files of different classes in parallel.
+    * Each class file is still processed by exactly one worker at a time,
+    * so the generated code is the same as in a sequential run.
+    * Pass {@code null} (the default) to generate all classes on the calling thread.
+    *
+    * @param executor
+    *    the executor, or {@code null}
+    *
+    * @return this instance, to allow call chaining
+    *
+    * @since 1.6
+    */
+   public AbstractGenerator setExecutor(Executor executor)
+   {
+      this.executor = executor;
+      return this;
+   }
+
+   /**
+    * Enables or disables parallel generation using the {@linkplain ForkJoinPool#commonPool() common fork-join pool}.
+    *
+    * @param parallel
+    *    whether to generate classes in parallel
+    *
+    * @return this instance, to allow call chaining
+    *
+    * @see #setExecutor(Executor)
+    * @since 1.6
+    */
+   public AbstractGenerator setParallel(boolean parallel)
+   {
+      return this.setExecutor(parallel ? ForkJoinPool.commonPool() : null);
+   }
+
+   /**
+    * @return whether files whose content did not change are left untouched
+    *
+    * @since 1.6
+    */
+   public boolean getSkipUnchangedFiles()
+   {
+      return this.skipUnchangedFiles;
+   }
+
+   /**
+    * If enabled, the generator compares the generated text with the existing file content
+    * and only writes files that actually changed.
+    * This keeps the modification time of unchanged files,
+    * so incremental compilation and IDE indexes only pick up the classes that were really affected.
+    *
+    * @param skipUnchangedFiles
+    *    whether to skip writing files whose content did not change
+    *
+    * @return this instance, to allow call chaining
+    *
+    * @since 1.6
+    */
+   public AbstractGenerator setSkipUnchangedFiles(boolean skipUnchangedFiles)
+   {
+      this.skipUnchangedFiles = skipUnchangedFiles;
+      return this;
+   }
+
+   /**
+    * @return whether files are written atomically
+    *
+    * @since 1.6
+    */
+   public boolean getAtomicWrites()
+   {
+      return this.atomicWrites;
+   }
+
+   /**
+    * If enabled, every file is first written to a temporary file in the same directory,
+    * which is then renamed to the target file.
+    * Tools watching the source folder, like IDEs or build daemons, then never see partially written files.
+    *
+    * @param atomicWrites
+    *    whether to write files atomically
+    *
+    * @return this instance, to allow call chaining
+    *
+    * @since 1.6
+    */
+   public AbstractGenerator setAtomicWrites(boolean atomicWrites)
+   {
+      this.atomicWrites = atomicWrites;
+      return this;
+   }
+
+   /**
+    * @return whether only classes whose part of the model or templates changed are generated
+    *
+    * @since 1.6
+    */
+   public boolean getIncremental()
+   {
+      return this.incremental;
+   }
+
+   /**
+    * Enables incremental generation.
+    * The generator then stores a fingerprint of every class next to the class model file.
+    * It covers everything the generated code depends on:
+    * the attributes, roles, methods, property style and imports of the class and its superclasses,
+    * as well as the templates (including custom templates).
+    * On the next run, classes whose fingerprint did not change and whose source file still exists
+    * are neither parsed, rendered nor written; they are counted by {@link #getUpToDateClassCount()}.
+    * Runs without incremental generation delete the fingerprints,
+    * so the next incremental run generates all classes again.
+    * <p>
+    * Note that this assumes the generated files were not modified in a way that needs repair by the generator,
+    * e.g. by deleting generated members.
+    * Run without incremental generation to bring all files up to date again.
+    *
+    * @param incremental
+    *    whether to enable incremental generation
+    *
+    * @return this instance, to allow call chaining
+    *
+    * @since 1.6
+    */
+   public AbstractGenerator setIncremental(boolean incremental)
+   {
+      this.incremental = incremental;
+      return this;
+   }
+
+   /**
+    * @return the cache for parsed source files, or {@code null} if files are always parsed
+    *
+    * @since 1.6
+    */
+   public FragmentMapCache getParseCache()
+   {
+      return this.parseCache;
+   }
+
+   /**
+    * Sets a cache for parsed source files.
+    * Existing source files that did not change since they were last parsed are then restored from the cache
+    * instead of being parsed again.
+    * The same cache can be shared by multiple generators, also across runs.
+    *
+    * @param parseCache
+    *    the cache, or {@code null} (the default) to always parse source files
+    *
+    * @return this instance, to allow call chaining
+    *
+    * @since 1.6
+    */
+   public AbstractGenerator setParseCache(FragmentMapCache parseCache)
+   {
+      this.parseCache = parseCache;
+      return this;
+   }
+
+   /**
+    * @return the listener that receives timings and counters of generator runs, or {@code null}
+    *
+    * @since 1.6
+    */
+   public MetricsListener getMetricsListener()
+   {
+      return this.metricsListener;
+   }
+
+   /**
+    * Sets a listener that receives timings and counters of generator runs:
+    * the time spent loading, comparing and saving the model, parsing, rendering, compressing and writing each file,
+    * the number of fragments added, replaced, removed or skipped, and the number of bytes written.
+    * Use a {@link GenerationMetrics} to collect them and get a report as text or JSON.
+    *
+    * @param metricsListener
+    *    the listener, or {@code null} (the default) to not measure anything
+    *
+    * @return this instance, to allow call chaining
+    *
+    * @since 1.6
+    */
+   public AbstractGenerator setMetricsListener(MetricsListener metricsListener)
+   {
+      this.metricsListener = metricsListener;
+      return this;
+   }
+
+   /**
+    * @return the number of files written by the last call to {@link #generate(ClassModel)}
+    *
+    * @since 1.6
+    */
+   public int getWrittenFileCount()
+   {
+      return this.writtenFileCount.get();
+   }
+
+   /**
+    * @return the names of the files written by the last call to {@link #generate(ClassModel)},
+    * including the class model file
+    *
+    * @since 1.6
+    */
+   public Set<String> getWrittenFiles()
+   {
+      return Collections.unmodifiableSet(this.writtenFiles);
+   }
+
+   /**
+    * @return the number of files the last call to {@link #generate(ClassModel)} left untouched because
+    * their content did not change; always zero unless {@link #setSkipUnchangedFiles(boolean)} is enabled
+    *
+    * @since 1.6
+    */
+   public int getSkippedFileCount()
+   {
+      return this.skippedFileCount.get();
+   }
+
+   /**
+    * @return the number of classes the last call to {@link #generate(ClassModel)} did not generate at all because
+    * their fingerprint did not change; always zero unless {@link #setIncremental(boolean)} is enabled
+    *
+    * @since 1.6
+    */
+   public int getUpToDateClassCount()
+   {
+      return this.upToDateClassCount.get();
+   }
+
    protected abstract String getModelFileName();
 
    // =============== Methods ===============
@@ -77,83 +344,408 @@ public abstract class AbstractGenerator
     *
     * @param model
     *    providing classes to generate Java implementations for
+    *
+    * @throws IllegalArgumentException
+    *    if the model uses a collection type where it is not supported
     */
    public void generate(ClassModel model)
    {
+      this.generate(model, null);
+   }
+
+   // previousModel: the model of the previous run, if it is still in memory and matches the saved model file;
+   // it is marked and discarded like a loaded old model. null loads the old model from the model file.
+   void generate(ClassModel model, ClassModel previousModel)
+   {
+      checkModel(model);
+
+      final long startTime = System.nanoTime();
+      if (this.metricsListener != null)
+      {
+         this.metricsListener.generationStarted(model);
+      }
+
       final String modelFileName = this.getModelFileName();
-      final ClassModel oldModel = this.loadClassModel(model.getPackageSrcFolder(), modelFileName);
+      final ClassModel oldModel = previousModel != null ?
+         previousModel :
+         this.timed(MetricsListener.Phase.LOAD_MODEL, null,
+                    () -> this.loadClassModel(model.getPackageSrcFolder(), modelFileName));
 
-      final Map<String, FileFragmentMap> files = new HashMap<>();
+      final Map<String, FileFragmentMap> files = new ConcurrentHashMap<>();
 
-      final AbstractGenerator4ClassFile generator = this.createGenerator4ClassFile();
-      generator.setCustomTemplatesFile(this.getCustomTemplateFile());
+      this.writtenFileCount.set(0);
+      this.skippedFileCount.set(0);
+      this.writtenFiles.clear();
+      this.upToDateClassCount.set(0);
+
+      // generators are not thread-safe, so every worker takes its own one from this pool
+      final Queue<AbstractGenerator4ClassFile> generators = new ConcurrentLinkedQueue<>();
 
+      final Map<String, Clazz> oldClasses = new LinkedHashMap<>();
       if (oldModel != null)
       {
-         this.markModifiedElementsInOldModel(oldModel, model);
+         this.timed(MetricsListener.Phase.DIFF_MODEL, null, () -> this.markModifiedElementsInOldModel(oldModel, model));
 
-         // remove code of modified elements
-         this.generateClasses(oldModel, files, generator);
+         for (final Clazz oldClazz : oldModel.getClasses())
+         {
+            oldClasses.put(oldClazz.getName(), oldClazz);
+         }
+      }
 
-         this.deleteRemovedClassFiles(oldModel, files);
+      final Map<String, Clazz> newClasses = new LinkedHashMap<>();
+      for (final Clazz newClazz : model.getClasses())
+      {
+         newClasses.put(newClazz.getName(), newClazz);
       }
 
-      this.generateClasses(model, files, generator);
-      this.generateExtraClasses(model, generator);
+      final Set<String> classNames = new LinkedHashSet<>(oldClasses.keySet());
+      classNames.addAll(newClasses.keySet());
+
+      final Path fingerprintsPath = Paths.get(model.getPackageSrcFolder(), this.getFingerprintsFileName());
+      final Map<String, String> oldFingerprints;
+      final Map<String, String> newFingerprints;
+      final String templateDigest;
+      if (this.incremental)
+      {
+         // without an old model, nothing can be up to date
+         oldFingerprints = oldModel != null ? ClassFingerprints.load(fingerprintsPath) : Collections.emptyMap();
+         newFingerprints = new ConcurrentHashMap<>();
 
-      for (final FileFragmentMap fragmentMap : files.values())
+         final AbstractGenerator4ClassFile generator = this.pollGenerator(generators);
+         templateDigest = ClassFingerprints.templateDigest(generator, this.getCustomTemplateFile());
+         generators.offer(generator);
+      }
+      else
       {
-         fragmentMap.compressBlankLines();
-         fragmentMap.writeFile();
+         oldFingerprints = null;
+         newFingerprints = null;
+         templateDigest = null;
       }
 
-      this.saveNewClassModel(model, modelFileName);
+      // the fingerprints describe the files as of the end of the last incremental run;
+      // any other run, or a run that fails halfway, changes the files without updating them
+      ClassFingerprints.delete(fingerprintsPath);
+
+      // every class file only depends on its own old and new class, so they can be processed independently
+      this.forEach(classNames, name -> {
+         final AbstractGenerator4ClassFile generator = this.pollGenerator(generators);
+         try
+         {
+            final Clazz oldClazz = oldClasses.get(name);
+            final Clazz newClazz = newClasses.get(name);
+
+            if (newFingerprints != null && newClazz != null)
+            {
+               final String fingerprint = ClassFingerprints.fingerprint(newClazz, templateDigest);
+               newFingerprints.put(name, fingerprint);
+
+               if (oldClazz != null && fingerprint.equals(oldFingerprints.get(name)) //
+                   && Files.exists(Paths.get(generator.getSourceFileName(newClazz))))
+               {
+                  this.upToDateClassCount.incrementAndGet();
+                  return;
+               }
+            }
+
+            if (oldClazz != null)
+            {
+               // remove code of modified elements
+               this.generateClass(oldClazz, files, generator);
+               this.deleteRemovedClassFile(oldClazz, files);
+            }
+
+            if (newClazz != null)
+            {
+               this.generateClass(newClazz, files, generator);
+            }
+         }
+         finally
+         {
+            generators.offer(generator);
+         }
+      });
+
+      this.generateExtraClasses(model, this.pollGenerator(generators));
+
+      this.forEach(files.values(), fragmentMap -> {
+         final String fileName = fragmentMap.getFileName();
+         if (this.metricsListener != null)
+         {
+            this.metricsListener.fragmentsGenerated(fileName, fragmentMap.getAddedCount(),
+                                                    fragmentMap.getReplacedCount(), fragmentMap.getRemovedCount(),
+                                                    fragmentMap.getSkippedCount());
+         }
+
+         this.timed(MetricsListener.Phase.COMPRESS, fileName, fragmentMap::compressBlankLines);
+
+         final boolean written = this.timed(MetricsListener.Phase.WRITE, fileName, () -> {
+            if (!this.skipUnchangedFiles)
+            {
+               fragmentMap.writeFile(this.atomicWrites);
+               return true;
+            }
+            return fragmentMap.writeFileIfChanged(this.atomicWrites);
+         });
+         if (written)
+         {
+            this.fileWritten(fileName);
+         }
+         else
+         {
+            this.skippedFileCount.incrementAndGet();
+         }
+      });
+
+      logger.info("\n   written " + this.writtenFileCount.get() + " files, skipped " + this.skippedFileCount.get()
+                  + " unchanged files and " + this.upToDateClassCount.get() + " up-to-date classes");
+
+      this.timed(MetricsListener.Phase.SAVE_MODEL, null, () -> this.saveNewClassModel(model, modelFileName));
+      this.writtenFiles.add(model.getPackageSrcFolder() + '/' + modelFileName);
+
+      if (newFingerprints != null)
+      {
+         ClassFingerprints.save(fingerprintsPath, newFingerprints);
+         this.writtenFiles.add(fingerprintsPath.toString());
+      }
+
+      if (this.metricsListener != null)
+      {
+         this.metricsListener.generationFinished(model, System.nanoTime() - startTime);
+      }
    }
 
-   protected void generateExtraClasses(ClassModel model, AbstractGenerator4ClassFile generator)
+   // models that were not built with the builders may be invalid; reject them before any file is touched,
+   // instead of generating code that does not compile
+   private static void checkModel(ClassModel model)
    {
+      for (final Clazz clazz : model.getClasses())
+      {
+         for (final Attribute attribute : clazz.getAttributes())
+         {
+            final String name = clazz.getName() + '.' + attribute.getName();
+            Validator.checkAttributeCollectionType(name, attribute.getCollectionType());
+            Validator.checkPrimitiveArrayAttribute(name, attribute.getType(), attribute.getCollectionType(),
+                                                   attribute.getInitialization());
+         }
+         for (final AssocRole role : clazz.getRoles())
+         {
+            Validator.checkRoleCollectionType(clazz.getName() + '.' + role.getName(), role.getCollectionType());
+         }
+      }
    }
 
-   protected abstract AbstractGenerator4ClassFile createGenerator4ClassFile();
+   private <T> T timed(MetricsListener.Phase phase, String subject, Supplier<T> action)
+   {
+      final MetricsListener listener = this.metricsListener;
+      if (listener == null)
+      {
+         return action.get();
+      }
+
+      final long start = System.nanoTime();
+      final T result = action.get();
+      listener.phaseCompleted(phase, subject, System.nanoTime() - start);
+      return result;
+   }
+
+   private void timed(MetricsListener.Phase phase, String subject, Runnable action)
+   {
+      this.timed(phase, subject, () -> {
+         action.run();
+         return null;
+      });
+   }
+
+   private void fileWritten(String fileName)
+   {
+      this.writtenFileCount.incrementAndGet();
+      this.writtenFiles.add(fileName);
+
+      final MetricsListener listener = this.metricsListener;
+      if (listener == null)
+      {
+         return;
+      }
+
+      try
+      {
+         listener.fileWritten(fileName, Files.size(Paths.get(fileName)));
+      }
+      catch (IOException ignored)
+      {
+         // writing already reported the error
+      }
+   }
 
-   private void deleteRemovedClassFiles(ClassModel oldModel, Map<String, FileFragmentMap> files)
+   private String getFingerprintsFileName()
    {
-      for (final Clazz clazz : oldModel.getClasses())
+      final String modelFileName = this.getModelFileName();
+      final int dot = modelFileName.lastIndexOf('.');
+      return (dot >= 0 ? modelFileName.substring(0, dot) : modelFileName) + "Fingerprints.properties";
+   }
+
+   /**
+    * Writes the content of an additional generated file, like a support class that is not part of the class model.
+    * Respects {@link #setSkipUnchangedFiles(boolean)} and {@link #setAtomicWrites(boolean)},
+    * and counts the file as written or skipped.
+    * <p>
+    * If an exception occurs, the stack trace is printed to stderr.
+    *
+    * @param fileName
+    *    the file name
+    * @param content
+    *    the file content
+    *
+    * @since 1.6
+    */
+   protected void writeExtraFile(String fileName, String content)
+   {
+      final Path path = Paths.get(fileName);
+      final long start = System.nanoTime();
+      try
       {
-         if (clazz.getModified() && files.get(clazz.getName()).isClassBodyEmpty())
+         if (!this.skipUnchangedFiles)
          {
-            files.remove(clazz.getName());
+            SourceFiles.write(path, content, this.atomicWrites);
+            this.fileWritten(fileName);
+         }
+         else if (SourceFiles.writeIfChanged(path, content, this.atomicWrites))
+         {
+            this.fileWritten(fileName);
+         }
+         else
+         {
+            this.skippedFileCount.incrementAndGet();
+         }
+      }
+      catch (IOException e)
+      {
+         e.printStackTrace();
+      }
 
-            final String classFileName = clazz.getModel().getPackageSrcFolder() + "/" + clazz.getName() + ".java";
-            final Path path = Paths.get(classFileName);
-            try
-            {
-               Files.deleteIfExists(path);
-               Logger.getLogger(Generator.class.getName()).info("\n   deleting empty file " + classFileName);
-            }
-            catch (IOException e)
-            {
-               e.printStackTrace();
-            }
+      if (this.metricsListener != null)
+      {
+         this.metricsListener.phaseCompleted(MetricsListener.Phase.WRITE, fileName, System.nanoTime() - start);
+      }
+   }
+
+   /**
+    * Renders the template and writes the result like {@link #writeExtraFile(String, String)}.
+    *
+    * @param fileName
+    *    the file name
+    * @param st
+    *    the template
+    *
+    * @since 1.6
+    */
+   protected void writeExtraFile(String fileName, ST st)
+   {
+      final StringWriter writer = new StringWriter();
+      try
+      {
+         st.write(new AutoIndentWriter(writer));
+      }
+      catch (IOException ex)
+      {
+         ex.printStackTrace();
+         return;
+      }
+      this.writeExtraFile(fileName, writer.toString());
+   }
+
+   private AbstractGenerator4ClassFile pollGenerator(Queue<AbstractGenerator4ClassFile> generators)
+   {
+      final AbstractGenerator4ClassFile pooled = generators.poll();
+      if (pooled != null)
+      {
+         return pooled;
+      }
+
+      final AbstractGenerator4ClassFile generator = this.createGenerator4ClassFile();
+      generator.setCustomTemplatesFile(this.getCustomTemplateFile());
+      generator.setMetricsListener(this.metricsListener);
+      return generator;
+   }
+
+   private <T> void forEach(Collection<T> items, Consumer<? super T> action)
+   {
+      final Executor executor = this.executor;
+      if (executor == null)
+      {
+         items.forEach(action);
+         return;
+      }
+
+      final CompletableFuture<?>[] futures = new CompletableFuture<?>[items.size()];
+      int i = 0;
+      for (final T item : items)
+      {
+         futures[i++] = CompletableFuture.runAsync(() -> action.accept(item), executor);
+      }
+
+      try
+      {
+         CompletableFuture.allOf(futures).join();
+      }
+      catch (CompletionException ex)
+      {
+         final Throwable cause = ex.getCause();
+         if (cause instanceof RuntimeException)
+         {
+            throw (RuntimeException) cause;
          }
+         if (cause instanceof Error)
+         {
+            throw (Error) cause;
+         }
+         throw ex;
       }
    }
 
-   private void generateClasses(ClassModel model, Map<String, FileFragmentMap> files,
-      AbstractGenerator4ClassFile generator)
+   protected void generateExtraClasses(ClassModel model, AbstractGenerator4ClassFile generator)
    {
-      for (Clazz clazz : model.getClasses())
+   }
+
+   protected abstract AbstractGenerator4ClassFile createGenerator4ClassFile();
+
+   private void deleteRemovedClassFile(Clazz clazz, Map<String, FileFragmentMap> files)
+   {
+      if (!clazz.getModified() || !files.get(clazz.getName()).isClassBodyEmpty())
       {
-         final FileFragmentMap fragmentMap = files.computeIfAbsent(clazz.getName(), s -> {
-            final String sourceFileName = generator.getSourceFileName(clazz);
-            return Files.exists(Paths.get(sourceFileName)) ?
-               FragmentMapBuilder.parse(sourceFileName) :
-               new FileFragmentMap(sourceFileName);
-         });
-         generator.generate(clazz, fragmentMap);
+         return;
+      }
+
+      files.remove(clazz.getName());
+
+      final String classFileName = clazz.getModel().getPackageSrcFolder() + "/" + clazz.getName() + ".java";
+      final Path path = Paths.get(classFileName);
+      try
+      {
+         Files.deleteIfExists(path);
+         Logger.getLogger(Generator.class.getName()).info("\n   deleting empty file " + classFileName);
+      }
+      catch (IOException e)
+      {
+         e.printStackTrace();
       }
    }
 
+   private void generateClass(Clazz clazz, Map<String, FileFragmentMap> files, AbstractGenerator4ClassFile generator)
+   {
+      final FileFragmentMap fragmentMap = files.computeIfAbsent(clazz.getName(), s -> {
+         final String sourceFileName = generator.getSourceFileName(clazz);
+         if (!Files.exists(Paths.get(sourceFileName)))
+         {
+            return new FileFragmentMap(sourceFileName);
+         }
+         return this.timed(MetricsListener.Phase.PARSE, sourceFileName, () -> this.parseCache != null ?
+            this.parseCache.parse(sourceFileName) :
+            FragmentMapBuilder.parse(sourceFileName));
+      });
+      generator.generate(clazz, fragmentMap);
+   }
+
    private ClassModel loadClassModel(String modelFolder, String modelFileName)
    {
       String fileName = modelFolder + '/' + modelFileName;
@@ -166,11 +758,19 @@ public abstract class AbstractGenerator
             return null;
          }
 
+         final Object event = FlightRecorderEvents.LOAD_MODEL.begin();
+
          byte[] bytes = Files.readAllBytes(path);
          String yamlString = new String(bytes);
 
          YamlIdMap idMap = new YamlIdMap(ClassModel.class.getPackage().getName());
-         return (ClassModel) idMap.decode(yamlString);
+         final ClassModel model = (ClassModel) idMap.decode(yamlString);
+
+         if (event != null)
+         {
+            FlightRecorderEvents.LOAD_MODEL.commit(event, fileName, model != null ? model.getClasses().size() : 0);
+         }
+         return model;
       }
       catch (IOException e)
       {
@@ -182,6 +782,8 @@ public abstract class AbstractGenerator
 
    private void saveNewClassModel(ClassModel model, String modelFileName)
    {
+      final Object event = FlightRecorderEvents.SAVE_MODEL.begin();
+
       YamlIdMap idMap = new YamlIdMap(ClassModel.class.getPackage().getName());
       String yamlString = idMap.encode(model);
       try
@@ -191,6 +793,11 @@ public abstract class AbstractGenerator
          Files.createDirectories(Paths.get(modelFolder));
          Files.write(Paths.get(fileName), yamlString.getBytes(), StandardOpenOption.CREATE,
                      StandardOpenOption.TRUNCATE_EXISTING);
+
+         if (event != null)
+         {
+            FlightRecorderEvents.SAVE_MODEL.commit(event, fileName, model.getClasses().size());
+         }
       }
       catch (IOException e)
       {
@@ -292,7 +899,7 @@ public abstract class AbstractGenerator
          return true;
       }
 
-      for (FMethod newMethod : newClazz.getMethods())
+      for (FMethod newMethod : newClazz.getMethodsByName(oldMethod.getName()))
       {
          if (oldMethod.signatureMatches(newMethod))
          {
@@ -0,0 +1,306 @@
+package org.fulib;
+
+import org.fulib.classmodel.*;
+import org.fulib.util.AbstractGenerator4ClassFile;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Computes and persists fingerprints of the parts of a class model that influence the code generated for one class.
+ * Two equal fingerprints mean that generating the class again would produce the same code.
+ *
+ * @since 1.6
+ */
+class ClassFingerprints
+{
+   // =============== Constants ===============
+
+   // increment when the fingerprint content changes, so that old fingerprints become invalid
+   private static final String FORMAT = "1";
+
+   private static final Pattern TEMPLATE_IMPORT_PATTERN = Pattern.compile("^import\\s+\"([^\"]+)\"", Pattern.MULTILINE);
+
+   private static final char SEPARATOR = '\0';
+
+   // =============== Static Methods ===============
+
+   /**
+    * Computes a digest of all templates the generator may use, including the templates they import and the custom
+    * template file.
+    *
+    * @param generator
+    *    the class file generator
+    * @param customTemplateFile
+    *    the custom template file, or {@code null}
+    *
+    * @return the digest
+    */
+   static String templateDigest(AbstractGenerator4ClassFile generator, String customTemplateFile)
+   {
+      final MessageDigest digest = newDigest();
+      update(digest, FORMAT);
+      update(digest, generator.getClass().getName());
+
+      final Set<String> visited = new HashSet<>();
+      for (final String fileName : generator.getTemplateFileNames())
+      {
+         updateTemplate(digest, fileName, visited);
+      }
+
+      if (customTemplateFile != null)
+      {
+         update(digest, customTemplateFile);
+         update(digest, readTemplate(customTemplateFile));
+      }
+
+      return toHex(digest.digest());
+   }
+
+   private static void updateTemplate(MessageDigest digest, String fileName, Set<String> visited)
+   {
+      if (!visited.add(fileName))
+      {
+         return;
+      }
+
+      final String content = readTemplate(fileName);
+      update(digest, fileName);
+      update(digest, content);
+
+      final int slash = fileName.lastIndexOf('/');
+      final String folder = slash >= 0 ? fileName.substring(0, slash + 1) : "";
+      final Matcher matcher = TEMPLATE_IMPORT_PATTERN.matcher(content);
+      while (matcher.find())
+      {
+         updateTemplate(digest, folder + matcher.group(1), visited);
+      }
+   }
+
+   private static String readTemplate(String fileName)
+   {
+      try
+      {
+         final Path path = Paths.get(fileName);
+         if (Files.isRegularFile(path))
+         {
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+         }
+
+         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+         if (classLoader == null)
+         {
+            classLoader = ClassFingerprints.class.getClassLoader();
+         }
+
+         try (final InputStream input = classLoader.getResourceAsStream(fileName))
+         {
+            if (input == null)
+            {
+               // missing templates are reported by ST; they still count as a (missing) state
+               return "";
+            }
+
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) > 0)
+            {
+               output.write(buffer, 0, read);
+            }
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+         }
+      }
+      catch (IOException | InvalidPathException e)
+      {
+         return "";
+      }
+   }
+
+   /**
+    * Computes the fingerprint of a class.
+    * It covers the package, name, property style and imports of the class,
+    * all attributes, roles (including the opposite roles) and methods,
+    * the same information for all superclasses, and the template digest.
+    *
+    * @param clazz
+    *    the class
+    * @param templateDigest
+    *    the result of {@link #templateDigest(AbstractGenerator4ClassFile, String)}
+    *
+    * @return the fingerprint
+    */
+   static String fingerprint(Clazz clazz, String templateDigest)
+   {
+      final StringBuilder builder = new StringBuilder();
+      builder.append(FORMAT).append(SEPARATOR).append(templateDigest).append(SEPARATOR);
+
+      final ClassModel model = clazz.getModel();
+      if (model != null)
+      {
+         append(builder, "package", model.getPackageName(), model.getPackageSrcFolder());
+      }
+
+      final Set<Clazz> visited = new HashSet<>();
+      for (Clazz current = clazz; current != null && visited.add(current); current = current.getSuperClass())
+      {
+         appendClass(builder, current);
+      }
+
+      final MessageDigest digest = newDigest();
+      update(digest, builder.toString());
+      return toHex(digest.digest());
+   }
+
+   private static void appendClass(StringBuilder builder, Clazz clazz)
+   {
+      append(builder, "class", clazz.getName(), clazz.getPropertyStyle());
+      append(builder, "imports", String.valueOf(clazz.getImportList()));
+
+      for (final Attribute attribute : clazz.getAttributes())
+      {
+         append(builder, "attribute", attribute.getName(), attribute.getType(), attribute.getPropertyStyle(),
+                collectionType(attribute.getCollectionType()), attribute.getInitialization(),
+                attribute.getDescription(), attribute.getSince());
+      }
+
+      for (final AssocRole role : clazz.getRoles())
+      {
+         append(builder, "role", role.getName(), String.valueOf(role.getCardinality()), role.getPropertyStyle(),
+                collectionType(role.getCollectionType()), String.valueOf(role.getAggregation()),
+                role.getDescription(), role.getSince());
+
+         final AssocRole other = role.getOther();
+         if (other != null)
+         {
+            append(builder, "other", other.getName(), String.valueOf(other.getCardinality()), other.getPropertyStyle(),
+                   collectionType(other.getCollectionType()), String.valueOf(other.getAggregation()),
+                   other.getClazz() != null ? other.getClazz().getName() : null);
+         }
+      }
+
+      for (final FMethod method : clazz.getMethods())
+      {
+         append(builder, "method", method.getDeclaration(), method.getMethodBody());
+      }
+   }
+
+   private static String collectionType(CollectionType collectionType)
+   {
+      return collectionType == null ? null : collectionType.getItf() + " " + collectionType.getImplTemplate();
+   }
+
+   private static void append(StringBuilder builder, String kind, String... values)
+   {
+      builder.append(kind);
+      for (final String value : values)
+      {
+         // distinguish null from "null"
+         builder.append(SEPARATOR).append(value == null ? "" : "=" + value);
+      }
+      builder.append('\n');
+   }
+
+   // --------------- Persistence ---------------
+
+   static Map<String, String> load(Path path)
+   {
+      final Map<String, String> result = new HashMap<>();
+      if (!Files.isRegularFile(path))
+      {
+         return result;
+      }
+
+      final Properties properties = new Properties();
+      try (final Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8))
+      {
+         properties.load(reader);
+      }
+      catch (IOException e)
+      {
+         // without fingerprints, every class is generated
+         return result;
+      }
+
+      for (final String name : properties.stringPropertyNames())
+      {
+         result.put(name, properties.getProperty(name));
+      }
+      return result;
+   }
+
+   static void save(Path path, Map<String, String> fingerprints)
+   {
+      // sorted for stable file content
+      final StringBuilder builder = new StringBuilder();
+      builder.append("# fingerprints of generated classes, used for incremental generation\n");
+      for (final Map.Entry<String, String> entry : new TreeMap<>(fingerprints).entrySet())
+      {
+         builder.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+      }
+
+      try
+      {
+         Files.createDirectories(path.getParent());
+         Files.write(path, builder.toString().getBytes(StandardCharsets.UTF_8));
+      }
+      catch (IOException e)
+      {
+         Logger.getGlobal().log(Level.SEVERE, "\n   could not write " + path, e);
+      }
+   }
+
+   static void delete(Path path)
+   {
+      try
+      {
+         Files.deleteIfExists(path);
+      }
+      catch (IOException e)
+      {
+         Logger.getGlobal().log(Level.SEVERE, "\n   could not delete " + path, e);
+      }
+   }
+
+   // --------------- Helpers ---------------
+
+   private static MessageDigest newDigest()
+   {
+      try
+      {
+         return MessageDigest.getInstance("SHA-256");
+      }
+      catch (NoSuchAlgorithmException e)
+      {
+         // every Java platform is required to support SHA-256
+         throw new IllegalStateException(e);
+      }
+   }
+
+   private static void update(MessageDigest digest, String value)
+   {
+      digest.update(value.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+   }
+
+   private static String toHex(byte[] bytes)
+   {
+      final StringBuilder builder = new StringBuilder(bytes.length * 2);
+      for (final byte b : bytes)
+      {
+         builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return builder.toString();
+   }
+}
@@ -0,0 +1,603 @@
+package org.fulib;
+
+import org.fulib.classmodel.ClassModel;
+import org.fulib.util.STGroupCache;
+import org.fulib.util.SourceFiles;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Keeps a generator running between generations, so edit-generate-compile loops do not pay for JVM startup,
+ * class loading, parser initialization, template compilation and loading the old model on every run.
+ * <p>
+ * The daemon gets the model from a supplier, usually the code that builds the class model, and regenerates
+ * <ul>
+ * <li>when the command {@code generate} is received in a {@linkplain #serve(InputStream, OutputStream) session},
+ * e.g. on stdin or on a {@linkplain #listen(int) local socket}, and</li>
+ * <li>when a file below a {@linkplain #watch(Path) watched directory} changes.</li>
+ * </ul>
+ * Between generations, the compiled templates stay in the {@link STGroupCache},
+ * and the model of the last generation is used as the old model of the next one,
+ * as long as the model file was not changed by someone else.
+ * Changed template files ({@code *.stg}) in watched directories are invalidated in the {@link STGroupCache}.
+ * The daemon remembers the size and modification time of every file a generation wrote,
+ * so that the watcher ignores exactly those files as long as nobody else changes them.
+ * A {@linkplain #setChangeListener(Consumer) change listener} learns which changes caused a generation.
+ * <pre>{@code
+ * public static void main(String[] args) throws IOException
+ * {
+ *    try (GenerationDaemon daemon = new GenerationDaemon(Fulib.generator(), GenModel::buildModel))
+ *    {
+ *       daemon.watch(Paths.get("src/main/java/org/example/model"));
+ *       daemon.regenerate();
+ *       daemon.serve(System.in, System.out);
+ *    }
+ * }
+ * }</pre>
+ * Sessions use a line-based protocol. Every command is answered with exactly one line,
+ * which starts with {@code ok} or {@code error}:
+ * <ul>
+ * <li>{@code generate} regenerates and answers {@code ok <millis> ms, <written> written, <skipped> skipped};</li>
+ * <li>{@code invalidate [<file>]} invalidates the cached templates that use the file, or all cached templates;</li>
+ * <li>{@code quit} ends the session.</li>
+ * </ul>
+ * Generations are never run concurrently; requests from the watcher and from sessions wait for each other.
+ *
+ * @since 1.6
+ */
+public class GenerationDaemon implements Closeable
+{
+   // =============== Constants ===============
+
+   private static final Logger logger = Logger.getLogger(GenerationDaemon.class.getName());
+
+   private static final String TEMPLATE_SUFFIX = ".stg";
+
+   // changes usually come in bursts, e.g. when saving all files, so wait until there is no change for this long
+   private static final long QUIET_MILLIS = 50;
+
+   // =============== Fields ===============
+
+   private final AbstractGenerator generator;
+   private final Supplier<? extends ClassModel> modelSupplier;
+
+   private ClassModel lastModel;
+   private Path lastModelFile;
+   private FileTime lastModelFileTime;
+   private int generationCount;
+
+   // the files written by generations, with their state right after writing
+   private final Map<Path, FileState> writtenFiles = new HashMap<>();
+
+   private WatchService watchService;
+   private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+   private volatile Consumer<? super Set<Path>> changeListener;
+
+   private ServerSocket serverSocket;
+
+   private volatile boolean closed;
+
+   // =============== Constructors ===============
+
+   /**
+    * @param generator
+    *    the generator, e.g. {@link Fulib#generator()} or {@link Fulib#tablesGenerator()}
+    * @param modelSupplier
+    *    builds the class model to generate; called once per generation
+    */
+   public GenerationDaemon(AbstractGenerator generator, Supplier<? extends ClassModel> modelSupplier)
+   {
+      this.generator = Objects.requireNonNull(generator);
+      this.modelSupplier = Objects.requireNonNull(modelSupplier);
+   }
+
+   // =============== Properties ===============
+
+   public AbstractGenerator getGenerator()
+   {
+      return this.generator;
+   }
+
+   /**
+    * @return the number of completed generations
+    */
+   public synchronized int getGenerationCount()
+   {
+      return this.generationCount;
+   }
+
+   public Consumer<? super Set<Path>> getChangeListener()
+   {
+      return this.changeListener;
+   }
+
+   /**
+    * Sets a listener that the watcher calls after every generation it started,
+    * with the changed files that caused it, in the order they were noticed.
+    * Files written by a generation never show up here, unless someone else changed them afterwards.
+    * The listener runs in the watcher thread, so the watcher does not notice further changes until it returns.
+    *
+    * @param changeListener
+    *    the listener, or {@code null}
+    *
+    * @return this
+    */
+   public GenerationDaemon setChangeListener(Consumer<? super Set<Path>> changeListener)
+   {
+      this.changeListener = changeListener;
+      return this;
+   }
+
+   // =============== Methods ===============
+
+   /**
+    * Gets the model from the supplier and generates it.
+    * If the model file was not changed since the last generation,
+    * the model of the last generation is used as the old model instead of loading the model file.
+    */
+   public synchronized void regenerate()
+   {
+      final ClassModel model = this.modelSupplier.get();
+      final Path modelFile = Paths
+         .get(model.getPackageSrcFolder(), this.generator.getModelFileName())
+         .toAbsolutePath()
+         .normalize();
+
+      // the supplier may return the same instance every time, which must not be marked as the old model
+      final ClassModel previousModel = this.lastModel != null && this.lastModel != model //
+                                       && modelFile.equals(this.lastModelFile) //
+                                       && this.lastModelFileTime.equals(lastModifiedTime(modelFile)) ?
+         this.lastModel :
+         null;
+
+      // a failed generation leaves the model file in an unknown state
+      this.lastModel = null;
+      try
+      {
+         this.generator.generate(model, previousModel);
+      }
+      finally
+      {
+         // a failed generation may still have written some files
+         for (final String fileName : this.generator.getWrittenFiles())
+         {
+            final Path path = Paths.get(fileName).toAbsolutePath().normalize();
+            final FileState state = FileState.of(path);
+            if (state != null)
+            {
+               this.writtenFiles.put(path, state);
+            }
+         }
+      }
+
+      final FileTime modelFileTime = lastModifiedTime(modelFile);
+      if (modelFileTime != null)
+      {
+         this.lastModel = model;
+         this.lastModelFile = modelFile;
+         this.lastModelFileTime = modelFileTime;
+      }
+      this.generationCount++;
+   }
+
+   private static FileTime lastModifiedTime(Path path)
+   {
+      try
+      {
+         return Files.getLastModifiedTime(path);
+      }
+      catch (IOException e)
+      {
+         return null;
+      }
+   }
+
+   // --------------- Sessions ---------------
+
+   /**
+    * Reads commands from the input, one per line, and answers each with one line on the output,
+    * until the input ends or {@code quit} is received.
+    * See the class documentation for the available commands.
+    *
+    * @param in
+    *    the input, e.g. {@code System.in}
+    * @param out
+    *    the output, e.g. {@code System.out}
+    *
+    * @throws IOException
+    *    if reading the input fails
+    */
+   public void serve(InputStream in, OutputStream out) throws IOException
+   {
+      final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+      final PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), true);
+
+      String line;
+      while (!this.closed && (line = reader.readLine()) != null)
+      {
+         final String command = line.trim();
+         if (command.isEmpty())
+         {
+            continue;
+         }
+         if ("quit".equals(command))
+         {
+            writer.println("ok");
+            return;
+         }
+
+         writer.println(this.execute(command));
+      }
+   }
+
+   private String execute(String command)
+   {
+      final int space = command.indexOf(' ');
+      final String name = space < 0 ? command : command.substring(0, space);
+      final String argument = space < 0 ? null : command.substring(space + 1).trim();
+
+      switch (name)
+      {
+      case "generate":
+         synchronized (this)
+         {
+            final long startTime = System.nanoTime();
+            try
+            {
+               this.regenerate();
+            }
+            catch (RuntimeException e)
+            {
+               logger.log(Level.SEVERE, "\n   generation failed", e);
+               return "error " + e.toString().replace('\n', ' ');
+            }
+            return String.format("ok %d ms, %d written, %d skipped",
+                                 TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+                                 this.generator.getWrittenFileCount(), this.generator.getSkippedFileCount());
+         }
+      case "invalidate":
+         if (argument == null || argument.isEmpty())
+         {
+            STGroupCache.invalidate();
+         }
+         else
+         {
+            STGroupCache.invalidate(argument);
+         }
+         return "ok";
+      default:
+         return "error unknown command: " + name;
+      }
+   }
+
+   /**
+    * Accepts sessions on a local socket, one after another, in a background thread.
+    * The socket is only bound to the loopback address.
+    *
+    * @param port
+    *    the port, or 0 for any free port
+    *
+    * @return the port
+    *
+    * @throws IOException
+    *    if the socket cannot be bound
+    * @throws IllegalStateException
+    *    if the daemon is already listening
+    */
+   public synchronized int listen(int port) throws IOException
+   {
+      if (this.serverSocket != null)
+      {
+         throw new IllegalStateException("already listening on port " + this.serverSocket.getLocalPort());
+      }
+
+      final ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+      this.serverSocket = serverSocket;
+      startThread("fulib-daemon-socket", () -> this.acceptSessions(serverSocket));
+      return serverSocket.getLocalPort();
+   }
+
+   private void acceptSessions(ServerSocket serverSocket)
+   {
+      while (!serverSocket.isClosed())
+      {
+         try (final Socket socket = serverSocket.accept())
+         {
+            this.serve(socket.getInputStream(), socket.getOutputStream());
+         }
+         catch (IOException e)
+         {
+            if (!serverSocket.isClosed())
+            {
+               logger.log(Level.WARNING, "\n   session failed", e);
+            }
+         }
+      }
+   }
+
+   // --------------- Watching ---------------
+
+   /**
+    * Watches the directory and all its subdirectories, and regenerates when a file in them changes.
+    * Files written by a generation do not trigger another one, unless someone else changes them afterwards.
+    * Changes that arrive while a generation is running trigger another generation after it.
+    * Subdirectories created later are watched as well.
+    *
+    * @param directory
+    *    the directory, e.g. the source folder of the model; created if needed
+    *
+    * @return this
+    *
+    * @throws IOException
+    *    if the directory cannot be watched
+    */
+   public synchronized GenerationDaemon watch(Path directory) throws IOException
+   {
+      if (this.watchService == null)
+      {
+         final WatchService watchService = directory.getFileSystem().newWatchService();
+         this.watchService = watchService;
+         startThread("fulib-daemon-watcher", () -> this.processEvents(watchService));
+      }
+
+      Files.createDirectories(directory);
+      this.register(directory.toAbsolutePath().normalize(), null);
+      return this;
+   }
+
+   // files that already exist in the directory are added to changed, unless it is null
+   private void register(Path directory, Set<Path> changed) throws IOException
+   {
+      final WatchService watchService = this.watchService;
+      Files.walkFileTree(directory, new SimpleFileVisitor<Path>()
+      {
+         @Override
+         public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException
+         {
+            final WatchKey key = dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            GenerationDaemon.this.watchedDirectories.put(key, dir);
+            return FileVisitResult.CONTINUE;
+         }
+
+         @Override
+         public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+         {
+            if (changed != null)
+            {
+               // created before the directory was registered, so there will be no event for it
+               changed.add(file);
+            }
+            return FileVisitResult.CONTINUE;
+         }
+      });
+   }
+
+   private void processEvents(WatchService watchService)
+   {
+      try
+      {
+         while (true)
+         {
+            final Set<Path> changed = new LinkedHashSet<>();
+            WatchKey key = watchService.take();
+            do
+            {
+               this.collectChanges(key, changed);
+               key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            while (key != null);
+
+            // waits for a running generation, so its files are known when they are compared
+            synchronized (this)
+            {
+               changed.removeIf(this::isWrittenFile);
+            }
+            if (changed.isEmpty())
+            {
+               continue;
+            }
+
+            for (final Path path : changed)
+            {
+               if (path.toString().endsWith(TEMPLATE_SUFFIX))
+               {
+                  this.templateChanged(path);
+               }
+            }
+            logger.info("\n   " + changed.size() + " changed file(s): " + this.execute("generate"));
+
+            final Consumer<? super Set<Path>> changeListener = this.changeListener;
+            if (changeListener != null)
+            {
+               changeListener.accept(Collections.unmodifiableSet(changed));
+            }
+         }
+      }
+      catch (InterruptedException | ClosedWatchServiceException ignored)
+      {
+         // closed
+      }
+   }
+
+   private void collectChanges(WatchKey key, Set<Path> changed)
+   {
+      final Path directory = this.watchedDirectories.get(key);
+      if (directory == null)
+      {
+         // not registered yet or already removed
+         key.pollEvents();
+         key.reset();
+         return;
+      }
+
+      for (final WatchEvent<?> event : key.pollEvents())
+      {
+         if (event.kind() == OVERFLOW)
+         {
+            // events were lost, so anything may have changed
+            STGroupCache.invalidate();
+            changed.add(directory);
+            continue;
+         }
+
+         final Path path = directory.resolve((Path) event.context());
+         if (SourceFiles.isTemporaryFile(path))
+         {
+            continue;
+         }
+
+         if (Files.isDirectory(path))
+         {
+            if (event.kind() == ENTRY_CREATE)
+            {
+               try
+               {
+                  this.register(path, changed);
+               }
+               catch (IOException e)
+               {
+                  logger.log(Level.WARNING, "\n   could not watch " + path, e);
+               }
+            }
+            continue;
+         }
+
+         changed.add(path);
+      }
+
+      if (!key.reset())
+      {
+         this.watchedDirectories.remove(key);
+      }
+   }
+
+   // whether the file is still exactly as a generation wrote it
+   private boolean isWrittenFile(Path path)
+   {
+      final FileState state = this.writtenFiles.get(path);
+      return state != null && state.equals(FileState.of(path));
+   }
+
+   private void templateChanged(Path path)
+   {
+      final String customTemplatesFile = this.generator.getCustomTemplateFile();
+      if (customTemplatesFile != null && Paths
+         .get(customTemplatesFile)
+         .toAbsolutePath()
+         .normalize()
+         .equals(path.toAbsolutePath().normalize()))
+      {
+         STGroupCache.invalidate(customTemplatesFile);
+      }
+      else
+      {
+         // could be any template on the class path
+         STGroupCache.invalidate();
+      }
+   }
+
+   private static void startThread(String name, Runnable action)
+   {
+      final Thread thread = new Thread(action, name);
+      thread.setDaemon(true);
+      thread.start();
+   }
+
+   /**
+    * Stops watching and listening.
+    * Running sessions end after their current command.
+    *
+    * @throws IOException
+    *    if closing the watch service or socket fails
+    */
+   @Override
+   public synchronized void close() throws IOException
+   {
+      this.closed = true;
+      try
+      {
+         if (this.watchService != null)
+         {
+            this.watchService.close();
+         }
+      }
+      finally
+      {
+         if (this.serverSocket != null)
+         {
+            this.serverSocket.close();
+         }
+      }
+   }
+
+   // =============== Classes ===============
+
+   private static final class FileState
+   {
+      private final long size;
+      private final FileTime lastModifiedTime;
+
+      private FileState(long size, FileTime lastModifiedTime)
+      {
+         this.size = size;
+         this.lastModifiedTime = lastModifiedTime;
+      }
+
+      // null if the file does not exist
+      static FileState of(Path path)
+      {
+         try
+         {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileState(attributes.size(), attributes.lastModifiedTime());
+         }
+         catch (IOException e)
+         {
+            return null;
+         }
+      }
+
+      @Override
+      public boolean equals(Object o)
+      {
+         if (this == o)
+         {
+            return true;
+         }
+         if (!(o instanceof FileState))
+         {
+            return false;
+         }
+
+         final FileState other = (FileState) o;
+         return this.size == other.size && this.lastModifiedTime.equals(other.lastModifiedTime);
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return Objects.hash(this.size, this.lastModifiedTime);
+      }
+   }
+}
@@ -0,0 +1,367 @@
+package org.fulib;
+
+import org.fulib.classmodel.ClassModel;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MetricsListener} that adds up the timings and counters of one or more generator runs,
+ * and reports them as human-readable text or as JSON for build tooling.
+ * <pre>{@code
+ * GenerationMetrics metrics = new GenerationMetrics();
+ * Fulib.generator().setMetricsListener(metrics).generate(model);
+ * metrics.printReport(System.out);
+ * metrics.writeJson(Paths.get("build/reports/fulib/metrics.json"));
+ * }</pre>
+ * The JSON report has the following structure; all durations are in nanoseconds:
+ * <pre>{@code
+ * {
+ *   "runs": 1, "totalNanos": 123456789,
+ *   "files": { "written": 12, "bytesWritten": 34567 },
+ *   "fragments": { "added": 80, "replaced": 20, "removed": 2, "skipped": 1 },
+ *   "phases": {
+ *     "parse": {
+ *       "count": 12, "totalNanos": 2345678, "maxNanos": 456789,
+ *       "subjects": { "src/main/java/org/example/Foo.java": { "count": 1, "totalNanos": 456789 }, ... }
+ *     },
+ *     ...
+ *   }
+ * }
+ * }</pre>
+ * Instances are thread-safe.
+ *
+ * @since 1.6
+ */
+public class GenerationMetrics implements MetricsListener
+{
+   // =============== Constants ===============
+
+   private static final int CONSOLE_TOP_SUBJECTS = 5;
+
+   // =============== Fields ===============
+
+   private final LongAdder runs = new LongAdder();
+   private final LongAdder totalNanos = new LongAdder();
+
+   private final LongAdder writtenFiles = new LongAdder();
+   private final LongAdder bytesWritten = new LongAdder();
+
+   private final LongAdder addedFragments = new LongAdder();
+   private final LongAdder replacedFragments = new LongAdder();
+   private final LongAdder removedFragments = new LongAdder();
+   private final LongAdder skippedFragments = new LongAdder();
+
+   private final Map<MetricsListener.Phase, PhaseStats> phases = new EnumMap<>(MetricsListener.Phase.class);
+
+   // =============== Constructors ===============
+
+   public GenerationMetrics()
+   {
+      for (final MetricsListener.Phase phase : MetricsListener.Phase.values())
+      {
+         this.phases.put(phase, new PhaseStats());
+      }
+   }
+
+   // =============== Properties ===============
+
+   /**
+    * @return the number of completed generator runs
+    */
+   public long getRuns()
+   {
+      return this.runs.sum();
+   }
+
+   /**
+    * @return the total duration of all completed runs in nanoseconds
+    */
+   public long getTotalNanos()
+   {
+      return this.totalNanos.sum();
+   }
+
+   /**
+    * @param phase
+    *    the phase
+    *
+    * @return how often the phase was completed
+    */
+   public long getCount(MetricsListener.Phase phase)
+   {
+      return this.phases.get(phase).count.sum();
+   }
+
+   /**
+    * @param phase
+    *    the phase
+    *
+    * @return the total duration of the phase in nanoseconds
+    */
+   public long getNanos(MetricsListener.Phase phase)
+   {
+      return this.phases.get(phase).nanos.sum();
+   }
+
+   public long getWrittenFiles()
+   {
+      return this.writtenFiles.sum();
+   }
+
+   public long getBytesWritten()
+   {
+      return this.bytesWritten.sum();
+   }
+
+   public long getAddedFragments()
+   {
+      return this.addedFragments.sum();
+   }
+
+   public long getReplacedFragments()
+   {
+      return this.replacedFragments.sum();
+   }
+
+   public long getRemovedFragments()
+   {
+      return this.removedFragments.sum();
+   }
+
+   /**
+    * @return the number of fragments left untouched because they contain a {@code // no fulib} comment
+    */
+   public long getSkippedFragments()
+   {
+      return this.skippedFragments.sum();
+   }
+
+   // =============== Methods ===============
+
+   @Override
+   public void phaseCompleted(MetricsListener.Phase phase, String subject, long nanos)
+   {
+      this.phases.get(phase).add(subject, nanos);
+   }
+
+   @Override
+   public void fragmentsGenerated(String fileName, int added, int replaced, int removed, int skipped)
+   {
+      this.addedFragments.add(added);
+      this.replacedFragments.add(replaced);
+      this.removedFragments.add(removed);
+      this.skippedFragments.add(skipped);
+   }
+
+   @Override
+   public void fileWritten(String fileName, long bytes)
+   {
+      this.writtenFiles.increment();
+      this.bytesWritten.add(bytes);
+   }
+
+   @Override
+   public void generationFinished(ClassModel model, long nanos)
+   {
+      this.runs.increment();
+      this.totalNanos.add(nanos);
+   }
+
+   // --------------- Reports ---------------
+
+   /**
+    * Prints a summary with the duration of every phase and the slowest files and templates.
+    *
+    * @param out
+    *    the stream to print to
+    */
+   public void printReport(PrintStream out)
+   {
+      out.printf("fulib generation: %d run(s), %.1f ms%n", this.getRuns(), millis(this.getTotalNanos()));
+
+      for (final Map.Entry<MetricsListener.Phase, PhaseStats> entry : this.phases.entrySet())
+      {
+         final PhaseStats stats = entry.getValue();
+         final long count = stats.count.sum();
+         if (count == 0)
+         {
+            continue;
+         }
+
+         out.printf("   %-10s %6d x %10.1f ms%n", entry.getKey().getKey(), count, millis(stats.nanos.sum()));
+
+         final List<Map.Entry<String, SubjectStats>> subjects = stats.sortedSubjects();
+         for (int i = 0; i < subjects.size() && i < CONSOLE_TOP_SUBJECTS; i++)
+         {
+            final SubjectStats subject = subjects.get(i).getValue();
+            out.printf("      %6d x %10.1f ms  %s%n", subject.count.sum(), millis(subject.nanos.sum()),
+                       subjects.get(i).getKey());
+         }
+      }
+
+      out.printf("   fragments: %d added, %d replaced, %d removed, %d skipped (no fulib)%n", this.getAddedFragments(),
+                 this.getReplacedFragments(), this.getRemovedFragments(), this.getSkippedFragments());
+      out.printf("   files: %d written, %d bytes%n", this.getWrittenFiles(), this.getBytesWritten());
+   }
+
+   /**
+    * @return the report as JSON, in the format described in the class documentation
+    */
+   public String toJson()
+   {
+      final StringBuilder builder = new StringBuilder();
+      builder.append("{\n");
+      builder.append("  \"runs\": ").append(this.getRuns());
+      builder.append(", \"totalNanos\": ").append(this.getTotalNanos()).append(",\n");
+      builder.append("  \"files\": { \"written\": ").append(this.getWrittenFiles());
+      builder.append(", \"bytesWritten\": ").append(this.getBytesWritten()).append(" },\n");
+      builder.append("  \"fragments\": { \"added\": ").append(this.getAddedFragments());
+      builder.append(", \"replaced\": ").append(this.getReplacedFragments());
+      builder.append(", \"removed\": ").append(this.getRemovedFragments());
+      builder.append(", \"skipped\": ").append(this.getSkippedFragments()).append(" },\n");
+      builder.append("  \"phases\": {");
+
+      String phaseSeparator = "\n";
+      for (final Map.Entry<MetricsListener.Phase, PhaseStats> entry : this.phases.entrySet())
+      {
+         final PhaseStats stats = entry.getValue();
+         builder.append(phaseSeparator);
+         phaseSeparator = ",\n";
+
+         builder.append("    ");
+         appendString(builder, entry.getKey().getKey());
+         builder.append(": {\n");
+         builder.append("      \"count\": ").append(stats.count.sum());
+         builder.append(", \"totalNanos\": ").append(stats.nanos.sum());
+         builder.append(", \"maxNanos\": ").append(stats.maxNanos.get()).append(",\n");
+         builder.append("      \"subjects\": {");
+
+         String subjectSeparator = "\n";
+         for (final Map.Entry<String, SubjectStats> subject : stats.sortedSubjects())
+         {
+            builder.append(subjectSeparator);
+            subjectSeparator = ",\n";
+
+            builder.append("        ");
+            appendString(builder, subject.getKey());
+            builder.append(": { \"count\": ").append(subject.getValue().count.sum());
+            builder.append(", \"totalNanos\": ").append(subject.getValue().nanos.sum()).append(" }");
+         }
+         builder.append(stats.subjects.isEmpty() ? "}\n" : "\n      }\n");
+         builder.append("    }");
+      }
+
+      builder.append("\n  }\n");
+      builder.append("}\n");
+      return builder.toString();
+   }
+
+   /**
+    * Writes the {@linkplain #toJson() JSON report} to a file.
+    * Parent directories are created if needed.
+    *
+    * @param path
+    *    the file
+    *
+    * @throws IOException
+    *    if writing the file fails
+    */
+   public void writeJson(Path path) throws IOException
+   {
+      final Path parent = path.toAbsolutePath().getParent();
+      if (parent != null)
+      {
+         Files.createDirectories(parent);
+      }
+      Files.write(path, this.toJson().getBytes(StandardCharsets.UTF_8));
+   }
+
+   private static double millis(long nanos)
+   {
+      return nanos / 1e6;
+   }
+
+   private static void appendString(StringBuilder builder, String value)
+   {
+      builder.append('"');
+      for (int i = 0; i < value.length(); i++)
+      {
+         final char c = value.charAt(i);
+         switch (c)
+         {
+         case '"':
+            builder.append("\\\"");
+            break;
+         case '\\':
+            builder.append("\\\\");
+            break;
+         case '\n':
+            builder.append("\\n");
+            break;
+         case '\r':
+            builder.append("\\r");
+            break;
+         case '\t':
+            builder.append("\\t");
+            break;
+         default:
+            if (c < ' ')
+            {
+               builder.append(String.format("\\u%04x", (int) c));
+            }
+            else
+            {
+               builder.append(c);
+            }
+         }
+      }
+      builder.append('"');
+   }
+
+   // =============== Classes ===============
+
+   private static class PhaseStats
+   {
+      final LongAdder count = new LongAdder();
+      final LongAdder nanos = new LongAdder();
+      final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+      final Map<String, SubjectStats> subjects = new ConcurrentHashMap<>();
+
+      void add(String subject, long nanos)
+      {
+         this.count.increment();
+         this.nanos.add(nanos);
+         this.maxNanos.accumulate(nanos);
+
+         if (subject != null)
+         {
+            final SubjectStats stats = this.subjects.computeIfAbsent(subject, s -> new SubjectStats());
+            stats.count.increment();
+            stats.nanos.add(nanos);
+         }
+      }
+
+      // slowest first
+      List<Map.Entry<String, SubjectStats>> sortedSubjects()
+      {
+         final List<Map.Entry<String, SubjectStats>> result = new ArrayList<>(this.subjects.entrySet());
+         result.sort(Comparator.comparingLong((Map.Entry<String, SubjectStats> e) -> e.getValue().nanos.sum())
+                               .reversed());
+         return result;
+      }
+   }
+
+   private static class SubjectStats
+   {
+      final LongAdder count = new LongAdder();
+      final LongAdder nanos = new LongAdder();
+   }
+}
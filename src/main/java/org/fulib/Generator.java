@@ -1,6 +1,14 @@
 package org.fulib;
 
+import org.fulib.builder.Type;
+import org.fulib.classmodel.*;
+import org.fulib.parser.FragmentMapCache;
+import org.fulib.util.AbstractGenerator4ClassFile;
 import org.fulib.util.Generator4ClassFile;
+import org.fulib.util.Validator;
+import org.stringtemplate.v4.ST;
+
+import java.util.concurrent.Executor;
 
 /**
  * The fulib Generator generates Java code from a class model
@@ -29,6 +37,76 @@ public class Generator extends AbstractGenerator
       return this;
    }
 
+   /**
+    * @since 1.6
+    */
+   @Override
+   public Generator setExecutor(Executor executor)
+   {
+      super.setExecutor(executor);
+      return this;
+   }
+
+   /**
+    * @since 1.6
+    */
+   @Override
+   public Generator setParallel(boolean parallel)
+   {
+      super.setParallel(parallel);
+      return this;
+   }
+
+   /**
+    * @since 1.6
+    */
+   @Override
+   public Generator setSkipUnchangedFiles(boolean skipUnchangedFiles)
+   {
+      super.setSkipUnchangedFiles(skipUnchangedFiles);
+      return this;
+   }
+
+   /**
+    * @since 1.6
+    */
+   @Override
+   public Generator setAtomicWrites(boolean atomicWrites)
+   {
+      super.setAtomicWrites(atomicWrites);
+      return this;
+   }
+
+   /**
+    * @since 1.6
+    */
+   @Override
+   public Generator setIncremental(boolean incremental)
+   {
+      super.setIncremental(incremental);
+      return this;
+   }
+
+   /**
+    * @since 1.6
+    */
+   @Override
+   public Generator setParseCache(FragmentMapCache parseCache)
+   {
+      super.setParseCache(parseCache);
+      return this;
+   }
+
+   /**
+    * @since 1.6
+    */
+   @Override
+   public Generator setMetricsListener(MetricsListener metricsListener)
+   {
+      super.setMetricsListener(metricsListener);
+      return this;
+   }
+
    // =============== Methods ===============
 
    @Override
@@ -42,4 +120,50 @@ public class Generator extends AbstractGenerator
    {
       return new Generator4ClassFile();
    }
+
+   @Override
+   protected void generateExtraClasses(ClassModel model, AbstractGenerator4ClassFile generator)
+   {
+      if (usesRoleCollectionType(model, CollectionType.IndexedList))
+      {
+         final ST st = generator.getSTGroup("org/fulib/templates/IndexedList.stg").getInstanceOf("IndexedList");
+         st.add("packageName", model.getPackageName());
+         this.writeExtraFile(model.getPackageSrcFolder() + "/IndexedList.java", st);
+      }
+      if (usesPropertyStyle(model, Type.LISTENER))
+      {
+         final ST st = generator.getSTGroup("org/fulib/templates/PropertyListener.stg").getInstanceOf("PropertyListener");
+         st.add("packageName", model.getPackageName());
+         this.writeExtraFile(model.getPackageSrcFolder() + "/PropertyListener.java", st);
+      }
+   }
+
+   private static boolean usesRoleCollectionType(ClassModel model, CollectionType collectionType)
+   {
+      for (final Clazz clazz : model.getClasses())
+      {
+         for (final AssocRole role : clazz.getRoles())
+         {
+            final CollectionType roleCollectionType = role.getCollectionType();
+            if (role.isToMany() && roleCollectionType != null
+                && Validator.isSameCollectionType(roleCollectionType, collectionType))
+            {
+               return true;
+            }
+         }
+      }
+      return false;
+   }
+
+   private static boolean usesPropertyStyle(ClassModel model, String propertyStyle)
+   {
+      for (final Clazz clazz : model.getClasses())
+      {
+         if (propertyStyle.equals(clazz.getPropertyStyle()))
+         {
+            return true;
+         }
+      }
+      return false;
+   }
 }
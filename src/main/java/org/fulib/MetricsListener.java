@@ -0,0 +1,123 @@
+package org.fulib;
+
+import org.fulib.classmodel.ClassModel;
+
+/**
+ * Receives timings and counters from a generator run.
+ * Register an instance with {@link AbstractGenerator#setMetricsListener(MetricsListener)}.
+ * {@link GenerationMetrics} is an implementation that collects the values and reports them as text or JSON.
+ * <p>
+ * When the generator runs in {@linkplain AbstractGenerator#setExecutor(java.util.concurrent.Executor) parallel},
+ * the methods are called from multiple threads concurrently, so implementations must be thread-safe.
+ * All methods do nothing by default.
+ *
+ * @since 1.6
+ */
+public interface MetricsListener
+{
+   // =============== Classes ===============
+
+   /**
+    * The timed phases of a generator run.
+    */
+   enum Phase
+   {
+      /** loading the class model saved by the previous run; once per run */
+      LOAD_MODEL("loadModel"),
+      /** comparing the old and new model in {@link AbstractGenerator#markModifiedElementsInOldModel}; once per run */
+      DIFF_MODEL("diffModel"),
+      /** parsing an existing source file, or restoring it from the parse cache; the subject is the file name */
+      PARSE("parse"),
+      /** rendering a template; the subject is the template name */
+      RENDER("render"),
+      /** {@link org.fulib.classmodel.FileFragmentMap#compressBlankLines()}; the subject is the file name */
+      COMPRESS("compress"),
+      /** writing a file, or comparing it with the existing content; the subject is the file name */
+      WRITE("write"),
+      /** saving the class model for the next run; once per run */
+      SAVE_MODEL("saveModel");
+
+      private final String key;
+
+      Phase(String key)
+      {
+         this.key = key;
+      }
+
+      /**
+       * @return the name of this phase in reports, in lower camel case
+       */
+      public String getKey()
+      {
+         return this.key;
+      }
+   }
+
+   // =============== Methods ===============
+
+   /**
+    * Called before anything else in a run.
+    *
+    * @param model
+    *    the model to generate
+    */
+   default void generationStarted(ClassModel model)
+   {
+   }
+
+   /**
+    * Called after each timed phase.
+    *
+    * @param phase
+    *    the phase
+    * @param subject
+    *    the file or template name, or {@code null} for phases that run once per run
+    * @param nanos
+    *    the duration in nanoseconds
+    */
+   default void phaseCompleted(Phase phase, String subject, long nanos)
+   {
+   }
+
+   /**
+    * Called once for every source file after its fragments were generated.
+    *
+    * @param fileName
+    *    the file name
+    * @param added
+    *    the number of fragments that were added
+    * @param replaced
+    *    the number of existing fragments whose text was changed
+    * @param removed
+    *    the number of fragments that were removed
+    * @param skipped
+    *    the number of fragments left untouched because they contain a {@code // no fulib} comment
+    */
+   default void fragmentsGenerated(String fileName, int added, int replaced, int removed, int skipped)
+   {
+   }
+
+   /**
+    * Called for every file that was actually written.
+    *
+    * @param fileName
+    *    the file name
+    * @param bytes
+    *    the size of the written file in bytes
+    */
+   default void fileWritten(String fileName, long bytes)
+   {
+   }
+
+   /**
+    * Called after everything else in a run.
+    *
+    * @param model
+    *    the generated model
+    * @param nanos
+    *    the duration of the whole run in nanoseconds
+    */
+   default void generationFinished(ClassModel model, long nanos)
+   {
+   }
+}
@@ -2,18 +2,19 @@ package org.fulib;
 
 import org.fulib.classmodel.ClassModel;
 import org.fulib.classmodel.Clazz;
+import org.fulib.parser.FragmentMapCache;
 import org.fulib.util.AbstractGenerator4ClassFile;
 import org.fulib.util.Generator4TableClassFile;
-import org.stringtemplate.v4.AutoIndentWriter;
 import org.stringtemplate.v4.ST;
 import org.stringtemplate.v4.STGroup;
 
 import java.io.IOException;
-import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
 
 /**
  * The fulib TablesGenerator generates Table classes from a class model.
@@ -43,6 +44,76 @@ public class TablesGenerator extends AbstractGenerator
       return this;
    }
 
+   /**
+    * @since 1.6
+    */
+   @Override
+   public TablesGenerator setExecutor(Executor executor)
+   {
+      super.setExecutor(executor);
+      return this;
+   }
+
+   /**
+    * @since 1.6
+    */
+   @Override
+   public TablesGenerator setParallel(boolean parallel)
+   {
+      super.setParallel(parallel);
+      return this;
+   }
+
+   /**
+    * @since 1.6
+    */
+   @Override
+   public TablesGenerator setSkipUnchangedFiles(boolean skipUnchangedFiles)
+   {
+      super.setSkipUnchangedFiles(skipUnchangedFiles);
+      return this;
+   }
+
+   /**
+    * @since 1.6
+    */
+   @Override
+   public TablesGenerator setAtomicWrites(boolean atomicWrites)
+   {
+      super.setAtomicWrites(atomicWrites);
+      return this;
+   }
+
+   /**
+    * @since 1.6
+    */
+   @Override
+   public TablesGenerator setIncremental(boolean incremental)
+   {
+      super.setIncremental(incremental);
+      return this;
+   }
+
+   /**
+    * @since 1.6
+    */
+   @Override
+   public TablesGenerator setParseCache(FragmentMapCache parseCache)
+   {
+      super.setParseCache(parseCache);
+      return this;
+   }
+
+   /**
+    * @since 1.6
+    */
+   @Override
+   public TablesGenerator setMetricsListener(MetricsListener metricsListener)
+   {
+      super.setMetricsListener(metricsListener);
+      return this;
+   }
+
    @Override
    protected String getModelFileName()
    {
@@ -68,7 +139,13 @@ public class TablesGenerator extends AbstractGenerator
       STGroup group = generator.getSTGroup("org/fulib/templates/tables/StringTable.stg");
       ST st = group.getInstanceOf("StringTable");
       st.add("packageName", model.getPackageName() + ".tables");
-      this.writeToFile(model.getPackageSrcFolder() + "/tables/StringTable.java", st);
+      this.writeExtraFile(model.getPackageSrcFolder() + "/tables/StringTable.java", st);
+
+      group = generator.getSTGroup("org/fulib/templates/tables/ColumnStore.stg");
+      st = group.getInstanceOf("ColumnStore");
+      st.add("packageName", model.getPackageName() + ".tables");
+      st.add("primitiveTypes", Arrays.asList("int", "long", "float", "double"));
+      this.writeExtraFile(model.getPackageSrcFolder() + "/tables/ColumnStore.java", st);
    }
 
    private void generatePrimitiveTable(ClassModel model, AbstractGenerator4ClassFile generator, String primitiveType,
@@ -79,26 +156,7 @@ public class TablesGenerator extends AbstractGenerator
       st.add("packageName", model.getPackageName() + ".tables");
       st.add("primitiveType", primitiveType);
       st.add("objectType", objectType);
-      this.writeToFile(model.getPackageSrcFolder() + "/tables/" + primitiveType + "Table.java", st);
-   }
-
-   private void writeToFile(String fileName, ST st)
-   {
-      try
-      {
-         Path path = Paths.get(fileName);
-         Files.createDirectories(path.getParent());
-
-         try (final Writer writer = Files
-            .newBufferedWriter(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))
-         {
-            st.write(new AutoIndentWriter(writer));
-         }
-      }
-      catch (IOException ex)
-      {
-         ex.printStackTrace();
-      }
+      this.writeExtraFile(model.getPackageSrcFolder() + "/tables/" + primitiveType + "Table.java", st);
    }
 
    /**
@@ -97,6 +97,8 @@ public class AssociationBuilder
     *
     * @return this instance, to allow method chaining
     *
+    * @throws IllegalArgumentException
+    *    if the collection type is {@link CollectionType#PrimitiveArray}
     * @since 1.2
     */
    public AssociationBuilder setSourceRoleCollection(CollectionType type)
@@ -131,6 +133,8 @@ public class AssociationBuilder
     *
     * @return this instance, to allow method chaining
     *
+    * @throws IllegalArgumentException
+    *    if the collection type is {@link CollectionType#PrimitiveArray}
     * @since 1.2
     */
    public AssociationBuilder setTargetRoleCollection(CollectionType type)
@@ -187,7 +187,10 @@ public class ClassBuilder
     *
     * @throws IllegalArgumentException
     *    if an attribute or role with the same name already exists within the class,
-    *    or the name is not a valid Java identifier
+    *    or the name is not a valid Java identifier,
+    *    or the collection type is {@link CollectionType#IndexedList},
+    *    or the collection type is {@link CollectionType#PrimitiveArray} but the type is not primitive
+    *    or there is an initial value
     *
     * @since 1.2
     */
@@ -198,6 +201,9 @@ public class ClassBuilder
       {
          throw new IllegalArgumentException("duplicate attribute / role name");
       }
+      final String qualifiedName = this.clazz.getName() + '.' + name;
+      Validator.checkAttributeCollectionType(qualifiedName, collectionType);
+      Validator.checkPrimitiveArrayAttribute(qualifiedName, type, collectionType, initialValue);
 
       Attribute attribute = new Attribute();
       attribute.setClazz(this.clazz);
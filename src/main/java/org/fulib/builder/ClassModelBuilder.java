@@ -180,6 +180,25 @@ public class ClassModelBuilder
       return this;
    }
 
+   /**
+    * Set the default collection type to be used for to-many associations,
+    * e.g. {@link CollectionType#IndexedList} for constant-time containment checks.
+    *
+    * @param collectionType
+    *    the collection type
+    *
+    * @return this instance, to allow call chaining
+    *
+    * @throws IllegalArgumentException
+    *    if the collection type is {@link CollectionType#PrimitiveArray}
+    * @since 1.6
+    */
+   public ClassModelBuilder setDefaultCollectionType(CollectionType collectionType)
+   {
+      this.classModel.setDefaultCollectionType(collectionType);
+      return this;
+   }
+
    /**
     * Sets the default property style for the class model being built.
     *
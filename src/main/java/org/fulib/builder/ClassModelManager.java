@@ -901,11 +901,27 @@ public class ClassModelManager implements IModelManager
     */
    public FMethod getMethod(Clazz owner, String declaration)
    {
-      for (FMethod fMethod : owner.getMethods())
+      // the method name is the identifier before one of the opening parentheses,
+      // so only methods with one of these names need to be compared
+      for (int paren = declaration.indexOf('('); paren >= 0; paren = declaration.indexOf('(', paren + 1))
       {
-         if (fMethod.getDeclaration().equals(declaration))
+         int start = paren;
+         while (start > 0 && Character.isJavaIdentifierPart(declaration.charAt(start - 1)))
          {
-            return fMethod;
+            start--;
+         }
+         if (start == paren)
+         {
+            continue;
+         }
+
+         final String name = declaration.substring(start, paren);
+         for (FMethod fMethod : owner.getMethodsByName(name))
+         {
+            if (declaration.equals(fMethod.getDeclaration()))
+            {
+               return fMethod;
+            }
          }
       }
       return null;
@@ -26,4 +26,11 @@ public class Type
    public static final String POJO = "POJO";
    public static final String BEAN = "Bean";
    public static final String JAVA_FX = "JavaFX";
+   /**
+    * Like {@link #BEAN}, but notifies generated {@code PropertyListener}s instead of using
+    * {@code java.beans.PropertyChangeSupport}.
+    *
+    * @since 1.6
+    */
+   public static final String LISTENER = "Listener";
 }
@@ -1,6 +1,7 @@
 package org.fulib.classmodel;
 
 import org.fulib.builder.Type;
+import org.fulib.util.Validator;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
@@ -141,7 +142,7 @@ public class AssocRole
       return this.name;
    }
 
-   public AssocRole setName(String value)
+   public AssocRole setName(String value) // no fulib
    {
       if (Objects.equals(value, this.name))
       {
@@ -150,6 +151,10 @@ public class AssocRole
 
       final String oldValue = this.name;
       this.name = value;
+      if (this.clazz != null)
+      {
+         this.clazz.roleRenamed(this, oldValue);
+      }
       this.firePropertyChange(PROPERTY_NAME, oldValue, value);
       return this;
    }
@@ -208,6 +213,8 @@ public class AssocRole
     *
     * @return this
     *
+    * @throws IllegalArgumentException
+    *    if the value is {@link CollectionType#PrimitiveArray}
     * @since 1.2
     */
    public AssocRole setCollectionType(CollectionType value)
@@ -217,6 +224,9 @@ public class AssocRole
          return this;
       }
 
+      final String qualifiedName = this.clazz != null ? this.clazz.getName() + '.' + this.name : this.name;
+      Validator.checkRoleCollectionType(qualifiedName, value);
+
       final CollectionType oldValue = this.collectionType;
       this.collectionType = value;
       this.firePropertyChange(PROPERTY_COLLECTION_TYPE, oldValue, value);
@@ -282,7 +292,7 @@ public class AssocRole
 
    /**
     * @return the property style.
-    * Currently, only {@link Type#POJO}, {@link Type#BEAN} and {@link Type#JAVA_FX} are supported.
+    * Currently, only {@link Type#POJO}, {@link Type#BEAN}, {@link Type#JAVA_FX} and {@link Type#LISTENER} are supported.
     */
    public String getPropertyStyle()
    {
@@ -292,7 +302,7 @@ public class AssocRole
    /**
     * @param value
     *    the property style.
-    *    Currently, only {@link Type#POJO}, {@link Type#BEAN} and {@link Type#JAVA_FX} are supported.
+    *    Currently, only {@link Type#POJO}, {@link Type#BEAN}, {@link Type#JAVA_FX} and {@link Type#LISTENER} are supported.
     *
     * @return this
     */
@@ -115,7 +115,7 @@ public class Attribute
       return this.name;
    }
 
-   public Attribute setName(String value)
+   public Attribute setName(String value) // no fulib
    {
       if (Objects.equals(value, this.name))
       {
@@ -124,6 +124,10 @@ public class Attribute
 
       final String oldValue = this.name;
       this.name = value;
+      if (this.clazz != null)
+      {
+         this.clazz.attributeRenamed(this, oldValue);
+      }
       this.firePropertyChange(PROPERTY_NAME, oldValue, value);
       return this;
    }
@@ -140,6 +144,9 @@ public class Attribute
          return this;
       }
 
+      Validator.checkPrimitiveArrayAttribute(this.getQualifiedName(), value, this.collectionType,
+                                             this.initialization);
+
       final String oldValue = this.type;
       this.type = value;
       this.typeSignature = buildTypeSignature(value);
@@ -205,6 +212,9 @@ public class Attribute
     *
     * @return this
     *
+    * @throws IllegalArgumentException
+    *    if the value is {@link CollectionType#PrimitiveArray} and the type is not primitive
+    *    or there is an initial value
     * @since 1.2
     */
    public Attribute setCollectionType(CollectionType value)
@@ -214,6 +224,8 @@ public class Attribute
          return this;
       }
 
+      Validator.checkPrimitiveArrayAttribute(this.getQualifiedName(), this.type, value, this.initialization);
+
       final CollectionType oldValue = this.collectionType;
       this.collectionType = value;
       this.firePropertyChange(PROPERTY_COLLECTION_TYPE, oldValue, value);
@@ -230,6 +242,20 @@ public class Attribute
       return this.getCollectionType() != null;
    }
 
+   /**
+    * @return a boolean indicating whether this is a multi-valued attribute stored in a primitive array
+    *
+    * @see CollectionType#PrimitiveArray
+    * @since 1.6
+    */
+   public boolean isPrimitiveArray()
+   {
+      // compares templates, because deserialized models may hold uncached collection types
+      final CollectionType collectionType = this.getCollectionType();
+      return collectionType != null //
+             && CollectionType.PrimitiveArray.getImplTemplate().equals(collectionType.getImplTemplate());
+   }
+
    public String getInitialization()
    {
       return this.initialization;
@@ -242,6 +268,8 @@ public class Attribute
          return this;
       }
 
+      Validator.checkPrimitiveArrayAttribute(this.getQualifiedName(), this.type, this.collectionType, value);
+
       final String oldValue = this.initialization;
       this.initialization = value;
       this.firePropertyChange(PROPERTY_INITIALIZATION, oldValue, value);
@@ -250,7 +278,7 @@ public class Attribute
 
    /**
     * @return the property style.
-    * Currently, only {@link Type#POJO}, {@link Type#BEAN} and {@link Type#JAVA_FX} are supported.
+    * Currently, only {@link Type#POJO}, {@link Type#BEAN}, {@link Type#JAVA_FX} and {@link Type#LISTENER} are supported.
     */
    public String getPropertyStyle()
    {
@@ -260,7 +288,7 @@ public class Attribute
    /**
     * @param value
     *    the property style.
-    *    Currently, only {@link Type#POJO}, {@link Type#BEAN} and {@link Type#JAVA_FX} are supported.
+    *    Currently, only {@link Type#POJO}, {@link Type#BEAN}, {@link Type#JAVA_FX} and {@link Type#LISTENER} are supported.
     *
     * @return this
     */
@@ -391,6 +419,11 @@ public class Attribute
       return this.setModified(true);
    }
 
+   private String getQualifiedName()
+   {
+      return this.clazz != null ? this.clazz.getName() + '.' + this.name : this.name;
+   }
+
    public boolean addPropertyChangeListener(PropertyChangeListener listener)
    {
       if (this.listeners == null)
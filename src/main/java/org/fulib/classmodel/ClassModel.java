@@ -1,6 +1,7 @@
 package org.fulib.classmodel;
 
 import org.fulib.builder.Type;
+import org.fulib.util.Validator;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
@@ -45,6 +46,7 @@ public class ClassModel
 
    private ArrayList<Clazz> // no fulib
       classes;
+   private final NameIndex<Clazz> classIndex = new NameIndex<>(); // no fulib
 
    private String mainJavaDir;
    private String packageName;
@@ -110,6 +112,8 @@ public class ClassModel
     *
     * @return this
     *
+    * @throws IllegalArgumentException
+    *    if the value is {@link CollectionType#PrimitiveArray}
     * @since 1.2
     */
    public ClassModel setDefaultCollectionType(CollectionType value)
@@ -119,6 +123,9 @@ public class ClassModel
          return this;
       }
 
+      // the default applies to every to-many role
+      Validator.checkRoleCollectionType("*", value);
+
       final CollectionType oldValue = this.defaultCollectionType;
       this.defaultCollectionType = value;
       this.firePropertyChange(PROPERTY_DEFAULT_COLLECTION_TYPE, oldValue, value);
@@ -153,7 +160,7 @@ public class ClassModel
 
    /**
     * @return the default property style for attributes and roles.
-    * Currently, only {@link Type#POJO}, {@link Type#BEAN} and {@link Type#JAVA_FX} are supported.
+    * Currently, only {@link Type#POJO}, {@link Type#BEAN}, {@link Type#JAVA_FX} and {@link Type#LISTENER} are supported.
     */
    public String getDefaultPropertyStyle()
    {
@@ -163,7 +170,7 @@ public class ClassModel
    /**
     * @param value
     *    the default property style for attributes and roles.
-    *    Currently, only {@link Type#POJO}, {@link Type#BEAN} and {@link Type#JAVA_FX} are supported.
+    *    Currently, only {@link Type#POJO}, {@link Type#BEAN}, {@link Type#JAVA_FX} and {@link Type#LISTENER} are supported.
     *
     * @return this
     */
@@ -182,14 +189,7 @@ public class ClassModel
 
    public Clazz getClazz(String name)
    {
-      for (Clazz clazz : this.getClasses())
-      {
-         if (Objects.equals(clazz.getName(), name))
-         {
-            return clazz;
-         }
-      }
-      return null;
+      return this.classIndex.get(name);
    }
 
    public ArrayList<Clazz> getClasses() // no fulib
@@ -236,15 +236,16 @@ public class ClassModel
     * @see Clazz#setModel(ClassModel)
     * @since 1.2
     */
-   public ClassModel withClasses(Clazz value)
+   public ClassModel withClasses(Clazz value) // no fulib
    {
       if (this.classes == null)
       {
          this.classes = new ArrayList<>();
       }
-      if (!this.classes.contains(value))
+      if (!this.classIndex.contains(value, value.getName()))
       {
          this.classes.add(value);
+         this.classIndex.add(value, value.getName());
          value.setModel(this);
          this.firePropertyChange(PROPERTY_CLASSES, null, value);
       }
@@ -322,10 +323,12 @@ public class ClassModel
     * @see Clazz#setModel(ClassModel)
     * @since 1.2
     */
-   public ClassModel withoutClasses(Clazz value)
+   public ClassModel withoutClasses(Clazz value) // no fulib
    {
-      if (this.classes != null && this.classes.remove(value))
+      if (this.classes != null && this.classIndex.contains(value, value.getName()))
       {
+         this.classes.remove(value);
+         this.classIndex.remove(value, value.getName());
          value.setModel(null);
          this.firePropertyChange(PROPERTY_CLASSES, value, null);
       }
@@ -370,6 +373,11 @@ public class ClassModel
 
    // =============== Methods ===============
 
+   void classRenamed(Clazz clazz, String oldName) // no fulib
+   {
+      this.classIndex.rename(clazz, oldName, clazz.getName(), this.classes);
+   }
+
    public boolean addPropertyChangeListener(PropertyChangeListener listener)
    {
       if (this.listeners == null)
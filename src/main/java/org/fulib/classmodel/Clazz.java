@@ -84,6 +84,9 @@ public class Clazz
       roles;
    private ArrayList<FMethod> // no fulib
       methods;
+   private final NameIndex<Attribute> attributeIndex = new NameIndex<>(); // no fulib
+   private final NameIndex<AssocRole> roleIndex = new NameIndex<>(); // no fulib
+   private final NameIndex<FMethod> methodIndex = new NameIndex<>(); // no fulib
    private LinkedHashSet<String> // no fulib
       imports;
    private String propertyStyle;
@@ -123,7 +126,7 @@ public class Clazz
       return this.name;
    }
 
-   public Clazz setName(String value)
+   public Clazz setName(String value) // no fulib
    {
       if (Objects.equals(value, this.name))
       {
@@ -132,6 +135,10 @@ public class Clazz
 
       final String oldValue = this.name;
       this.name = value;
+      if (this.model != null)
+      {
+         this.model.classRenamed(this, oldValue);
+      }
       this.firePropertyChange(PROPERTY_NAME, oldValue, value);
       return this;
    }
@@ -341,14 +348,7 @@ public class Clazz
 
    public Attribute getAttribute(String name)
    {
-      for (Attribute attr : this.getAttributes())
-      {
-         if (Objects.equals(attr.getName(), name))
-         {
-            return attr;
-         }
-      }
-      return null;
+      return this.attributeIndex.get(name);
    }
 
    public ArrayList<Attribute> getAttributes() // no fulib
@@ -395,15 +395,16 @@ public class Clazz
     * @see Attribute#setClazz(Clazz)
     * @since 1.2
     */
-   public Clazz withAttributes(Attribute value)
+   public Clazz withAttributes(Attribute value) // no fulib
    {
       if (this.attributes == null)
       {
          this.attributes = new ArrayList<>();
       }
-      if (!this.attributes.contains(value))
+      if (!this.attributeIndex.contains(value, value.getName()))
       {
          this.attributes.add(value);
+         this.attributeIndex.add(value, value.getName());
          value.setClazz(this);
          this.firePropertyChange(PROPERTY_ATTRIBUTES, null, value);
       }
@@ -481,10 +482,12 @@ public class Clazz
     * @see Attribute#setClazz(Clazz)
     * @since 1.2
     */
-   public Clazz withoutAttributes(Attribute value)
+   public Clazz withoutAttributes(Attribute value) // no fulib
    {
-      if (this.attributes != null && this.attributes.remove(value))
+      if (this.attributes != null && this.attributeIndex.contains(value, value.getName()))
       {
+         this.attributes.remove(value);
+         this.attributeIndex.remove(value, value.getName());
          value.setClazz(null);
          this.firePropertyChange(PROPERTY_ATTRIBUTES, value, null);
       }
@@ -535,14 +538,7 @@ public class Clazz
          // especially since multiple of them can exist.
          return null;
       }
-      for (AssocRole role : this.getRoles())
-      {
-         if (Objects.equals(role.getName(), name))
-         {
-            return role;
-         }
-      }
-      return null;
+      return this.roleIndex.get(name);
    }
 
    public ArrayList<AssocRole> getRoles() // no fulib
@@ -589,15 +585,16 @@ public class Clazz
     * @see AssocRole#setClazz(Clazz)
     * @since 1.2
     */
-   public Clazz withRoles(AssocRole value)
+   public Clazz withRoles(AssocRole value) // no fulib
    {
       if (this.roles == null)
       {
          this.roles = new ArrayList<>();
       }
-      if (!this.roles.contains(value))
+      if (!this.roleIndex.contains(value, value.getName()))
       {
          this.roles.add(value);
+         this.roleIndex.add(value, value.getName());
          value.setClazz(this);
          this.firePropertyChange(PROPERTY_ROLES, null, value);
       }
@@ -675,10 +672,12 @@ public class Clazz
     * @see AssocRole#setClazz(Clazz)
     * @since 1.2
     */
-   public Clazz withoutRoles(AssocRole value)
+   public Clazz withoutRoles(AssocRole value) // no fulib
    {
-      if (this.roles != null && this.roles.remove(value))
+      if (this.roles != null && this.roleIndex.contains(value, value.getName()))
       {
+         this.roles.remove(value);
+         this.roleIndex.remove(value, value.getName());
          value.setClazz(null);
          this.firePropertyChange(PROPERTY_ROLES, value, null);
       }
@@ -721,6 +720,19 @@ public class Clazz
       return this;
    }
 
+   /**
+    * @param name
+    *    the method name
+    *
+    * @return an unmodifiable list of all methods with the given name, in declaration order
+    *
+    * @since 1.6
+    */
+   public List<FMethod> getMethodsByName(String name)
+   {
+      return this.methodIndex.getAll(name);
+   }
+
    public ArrayList<FMethod> getMethods() // no fulib
    {
       return this.methods != null ? this.methods : EMPTY_methods;
@@ -765,15 +777,16 @@ public class Clazz
     * @see FMethod#setClazz(Clazz)
     * @since 1.2
     */
-   public Clazz withMethods(FMethod value)
+   public Clazz withMethods(FMethod value) // no fulib
    {
       if (this.methods == null)
       {
          this.methods = new ArrayList<>();
       }
-      if (!this.methods.contains(value))
+      if (!this.methodIndex.contains(value, value.getName()))
       {
          this.methods.add(value);
+         this.methodIndex.add(value, value.getName());
          value.setClazz(this);
          this.firePropertyChange(PROPERTY_METHODS, null, value);
       }
@@ -851,10 +864,12 @@ public class Clazz
     * @see FMethod#setClazz(Clazz)
     * @since 1.2
     */
-   public Clazz withoutMethods(FMethod value)
+   public Clazz withoutMethods(FMethod value) // no fulib
    {
-      if (this.methods != null && this.methods.remove(value))
+      if (this.methods != null && this.methodIndex.contains(value, value.getName()))
       {
+         this.methods.remove(value);
+         this.methodIndex.remove(value, value.getName());
          value.setClazz(null);
          this.firePropertyChange(PROPERTY_METHODS, value, null);
       }
@@ -1044,7 +1059,7 @@ public class Clazz
 
    /**
     * @return the default property style for attributes and roles.
-    * Currently, only {@link Type#POJO}, {@link Type#BEAN} and {@link Type#JAVA_FX} are supported.
+    * Currently, only {@link Type#POJO}, {@link Type#BEAN}, {@link Type#JAVA_FX} and {@link Type#LISTENER} are supported.
     */
    public String getPropertyStyle()
    {
@@ -1054,7 +1069,7 @@ public class Clazz
    /**
     * @param value
     *    the default property style for attributes and roles.
-    *    Currently, only {@link Type#POJO}, {@link Type#BEAN} and {@link Type#JAVA_FX} are supported.
+    *    Currently, only {@link Type#POJO}, {@link Type#BEAN}, {@link Type#JAVA_FX} and {@link Type#LISTENER} are supported.
     *
     * @return this
     */
@@ -1100,6 +1115,21 @@ public class Clazz
 
    // =============== Methods ===============
 
+   void attributeRenamed(Attribute attribute, String oldName) // no fulib
+   {
+      this.attributeIndex.rename(attribute, oldName, attribute.getName(), this.attributes);
+   }
+
+   void roleRenamed(AssocRole role, String oldName) // no fulib
+   {
+      this.roleIndex.rename(role, oldName, role.getName(), this.roles);
+   }
+
+   void methodRenamed(FMethod method, String oldName) // no fulib
+   {
+      this.methodIndex.rename(method, oldName, method.getName(), this.methods);
+   }
+
    public Clazz markAsModified()
    {
       return this.setModified(true);
@@ -59,6 +59,18 @@ public class CodeFragment extends Fragment
       writer.write(this.getText());
    }
 
+   @Override
+   int getTextLength()
+   {
+      return this.getText().length();
+   }
+
+   @Override
+   void appendText(StringBuilder builder)
+   {
+      builder.append(this.getText());
+   }
+
    @Override
    public String toString()
    {
@@ -20,6 +20,26 @@ public class CollectionType
    public static final CollectionType LinkedHashSet = of(java.util.LinkedHashSet.class);
    /** @since 1.4 */
    public static final CollectionType TreeSet = of(java.util.TreeSet.class);
+   /**
+    * A list without duplicates that looks up, adds and removes elements in constant time.
+    * Elements are compared by identity and iterated in insertion order.
+    * The implementation class is generated into the model package.
+    *
+    * @since 1.6
+    */
+   public static final CollectionType IndexedList = of("IndexedList<%s>");
+   /**
+    * A growable array of primitive values, for multi-valued attributes of primitive types like {@code int} or
+    * {@code double}.
+    * The elements are stored without boxing.
+    * Instead of a collection, the generated class offers array-based {@code get}, {@code with} and {@code without}
+    * methods.
+    * Array attributes start empty and cannot have an initial value.
+    * Not applicable to associations.
+    *
+    * @since 1.6
+    */
+   public static final CollectionType PrimitiveArray = of("PrimitiveArray");
 
    // =============== Fields ===============
 
@@ -2,10 +2,7 @@ package org.fulib.classmodel;
 
 import java.io.IOException;
 import java.io.Writer;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Collections;
-import java.util.Collection;
+import java.util.*;
 
 /** @since 1.2 */
 public class CompoundFragment extends Fragment
@@ -20,6 +17,9 @@ public class CompoundFragment extends Fragment
 
    private List<Fragment> children;
 
+   // children by key, in no particular order; kept in sync with children for fast lookups
+   private Map<String, List<Fragment>> childIndex;
+
    // =============== Properties ===============
 
    @Override
@@ -47,9 +47,10 @@ public class CompoundFragment extends Fragment
       {
          this.children = new ArrayList<>();
       }
-      if (!this.children.contains(value))
+      if (!this.containsChild(value))
       {
          this.children.add(index, value);
+         this.indexChild(value.getKey(), value);
          value.setParent(this);
          this.firePropertyChange(PROPERTY_children, null, value);
       }
@@ -62,9 +63,10 @@ public class CompoundFragment extends Fragment
       {
          this.children = new ArrayList<>();
       }
-      if (!this.children.contains(value))
+      if (!this.containsChild(value))
       {
          this.children.add(value);
+         this.indexChild(value.getKey(), value);
          value.setParent(this);
          this.firePropertyChange(PROPERTY_CHILDREN, null, value);
       }
@@ -91,8 +93,9 @@ public class CompoundFragment extends Fragment
 
    public CompoundFragment withoutChildren(Fragment value)
    {
-      if (this.children != null && this.children.remove(value))
+      if (this.containsChild(value) && this.children.remove(value))
       {
+         this.unindexChild(value.getKey(), value);
          value.setParent(null);
          this.firePropertyChange(PROPERTY_CHILDREN, value, null);
       }
@@ -132,6 +135,34 @@ public class CompoundFragment extends Fragment
       }
    }
 
+   @Override
+   int getTextLength()
+   {
+      if (this.children == null)
+      {
+         return 0;
+      }
+      int length = 0;
+      for (final Fragment child : this.children)
+      {
+         length += child.getTextLength();
+      }
+      return length;
+   }
+
+   @Override
+   void appendText(StringBuilder builder)
+   {
+      if (this.children == null)
+      {
+         return;
+      }
+      for (final Fragment child : this.children)
+      {
+         child.appendText(builder);
+      }
+   }
+
    public Fragment getChild(String relativeKey)
    {
       if (this.children == null || this.children.isEmpty())
@@ -151,11 +182,17 @@ public class CompoundFragment extends Fragment
 
    public Fragment getChildWithKey(String absoluteKey)
    {
-      if (this.children == null)
+      final List<Fragment> candidates = this.childIndex != null ? this.childIndex.get(absoluteKey) : null;
+      if (candidates == null)
       {
          return null;
       }
+      if (candidates.size() == 1)
+      {
+         return candidates.get(0);
+      }
 
+      // duplicate keys are rare, so we can afford to find the first one in child order
       for (final Fragment child : this.children)
       {
          if (absoluteKey.equals(child.getKey()))
@@ -166,6 +203,109 @@ public class CompoundFragment extends Fragment
       return null;
    }
 
+   /**
+    * @param absoluteKey
+    *    the key
+    *
+    * @return all children with the given key, in child order
+    *
+    * @since 1.6
+    */
+   public List<Fragment> getChildrenWithKey(String absoluteKey)
+   {
+      final List<Fragment> candidates = this.childIndex != null ? this.childIndex.get(absoluteKey) : null;
+      if (candidates == null)
+      {
+         return Collections.emptyList();
+      }
+      if (candidates.size() == 1)
+      {
+         return Collections.singletonList(candidates.get(0));
+      }
+
+      final List<Fragment> result = new ArrayList<>(candidates.size());
+      for (final Fragment child : this.children)
+      {
+         if (absoluteKey.equals(child.getKey()))
+         {
+            result.add(child);
+         }
+      }
+      return result;
+   }
+
+   private boolean containsChild(Fragment child)
+   {
+      if (this.childIndex == null)
+      {
+         return false;
+      }
+
+      final List<Fragment> candidates = this.childIndex.get(child.getKey());
+      if (candidates == null)
+      {
+         return false;
+      }
+
+      for (final Fragment candidate : candidates)
+      {
+         if (candidate == child)
+         {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private void indexChild(String key, Fragment child)
+   {
+      if (this.childIndex == null)
+      {
+         this.childIndex = new HashMap<>();
+      }
+      this.childIndex.computeIfAbsent(key, k -> new ArrayList<>(1)).add(child);
+   }
+
+   private void unindexChild(String key, Fragment child)
+   {
+      final List<Fragment> candidates = this.childIndex.get(key);
+      if (candidates == null)
+      {
+         return;
+      }
+
+      for (int i = 0; i < candidates.size(); i++)
+      {
+         if (candidates.get(i) == child)
+         {
+            candidates.remove(i);
+            break;
+         }
+      }
+      if (candidates.isEmpty())
+      {
+         this.childIndex.remove(key);
+      }
+   }
+
+   // called by Fragment.setKey to keep the child index in sync
+   void childKeyChanged(Fragment child, String oldKey)
+   {
+      if (this.childIndex == null)
+      {
+         return;
+      }
+
+      final List<Fragment> candidates = this.childIndex.get(oldKey);
+      if (candidates == null || !candidates.contains(child))
+      {
+         return;
+      }
+
+      this.unindexChild(oldKey, child);
+      this.indexChild(child.getKey(), child);
+   }
+
    public Fragment getAncestor(String... path)
    {
       Fragment ctx = this;
@@ -11,6 +11,7 @@ import org.fulib.util.Validator;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class FMethod
@@ -36,6 +37,10 @@ public class FMethod
    /** @since 1.3 */
    public static final String PROPERTY_CLAZZ = "clazz";
 
+   // many classes share declarations like toString(), so parse results are shared
+   private static final int MAX_PARSED_DECLARATIONS = 4096;
+   private static final Map<String, Declaration> PARSED_DECLARATIONS = new ConcurrentHashMap<>();
+
    // =============== Fields ===============
 
    protected PropertyChangeSupport listeners;
@@ -51,6 +56,16 @@ public class FMethod
 
    private boolean modified;
 
+   // caches, computed lazily and cleared by the setters.
+   // params and typeParams are mutable maps, so the caches also remember the entries they were computed from.
+   private String[] cachedParams;
+   private String[] cachedTypeParams;
+   private String declaration;
+   private String paramsString;
+   private String paramsSignature;
+   private String signature;
+   private String signatureClassName;
+
    // =============== Properties ===============
 
    public Clazz getClazz()
@@ -106,7 +121,18 @@ public class FMethod
     */
    public FMethod setName(String newName)
    {
+      if (Objects.equals(newName, this.name))
+      {
+         return this;
+      }
+
+      final String oldName = this.name;
       this.name = newName;
+      this.invalidateCache();
+      if (this.clazz != null)
+      {
+         this.clazz.methodRenamed(this, oldName);
+      }
       return this;
    }
 
@@ -121,6 +147,16 @@ public class FMethod
          return null;
       }
 
+      this.validateCache();
+      if (this.declaration == null)
+      {
+         this.declaration = this.buildDeclaration();
+      }
+      return this.declaration;
+   }
+
+   private String buildDeclaration()
+   {
       final StringBuilder builder = new StringBuilder();
       if (this.annotations != null && !this.annotations.isEmpty())
       {
@@ -182,6 +218,31 @@ public class FMethod
          return this;
       }
 
+      Declaration parsed = PARSED_DECLARATIONS.get(value);
+      if (parsed == null)
+      {
+         parsed = parseDeclaration(value);
+         if (PARSED_DECLARATIONS.size() >= MAX_PARSED_DECLARATIONS)
+         {
+            PARSED_DECLARATIONS.clear();
+         }
+         PARSED_DECLARATIONS.put(value, parsed);
+      }
+
+      this.setAnnotations(parsed.annotations);
+      this.setModifiers(parsed.modifiers);
+      setEntries(this.typeParams, parsed.typeParams);
+      this.setReturnType(parsed.returnType);
+      this.setName(parsed.name);
+      setEntries(this.params, parsed.params);
+      this.invalidateCache();
+
+      this.firePropertyChange("declaration", oldValue, value);
+      return this;
+   }
+
+   private static Declaration parseDeclaration(String value)
+   {
       // adding ";" because the "method" rule expects it
       final CharStream input = CharStreams.fromString(value + ";");
       final FulibClassLexer lexer = new FulibClassLexer(input);
@@ -205,9 +266,8 @@ public class FMethod
          .stream()
          .map(FMethod::inputText)
          .collect(Collectors.joining(" "));
-      this.setAnnotations(annotations);
 
-      this.setModifiers(methodCtx.modifier().stream().map(FMethod::inputText).collect(Collectors.joining(" ")));
+      final String modifiers = methodCtx.modifier().stream().map(FMethod::inputText).collect(Collectors.joining(" "));
 
       final FulibClassParser.TypeParamListContext typeParams = memberCtx.typeParamList();
       String returnType = inputText(typeParams != null ? memberCtx.annotatedType(0) : memberCtx.type());
@@ -219,18 +279,18 @@ public class FMethod
          returnType += "[]";
       }
 
-      this.setTypeParams(typeParams);
-      this.setReturnType(returnType);
-      this.setName(memberCtx.IDENTIFIER().getText());
-      this.setParams(memberCtx.parameterList());
+      final Map<String, String> typeParamMap = new LinkedHashMap<>();
+      parseTypeParams(typeParams, typeParamMap);
+      final Map<String, String> paramMap = new LinkedHashMap<>();
+      parseParams(memberCtx.parameterList(), paramMap);
 
-      this.firePropertyChange("declaration", oldValue, value);
-      return this;
+      return new Declaration(annotations, modifiers, snapshot(typeParamMap), returnType,
+                             memberCtx.IDENTIFIER().getText(), snapshot(paramMap));
    }
 
-   private void setTypeParams(FulibClassParser.TypeParamListContext paramsCtx)
+   private static void parseTypeParams(FulibClassParser.TypeParamListContext paramsCtx, Map<String, String> typeParams)
    {
-      this.typeParams.clear();
+      typeParams.clear();
       if (paramsCtx == null)
       {
          return;
@@ -243,13 +303,13 @@ public class FMethod
          final String type = types.isEmpty()
             ? null
             : types.stream().map(FMethod::inputText).collect(Collectors.joining(" & "));
-         this.typeParams.put(name, type);
+         typeParams.put(name, type);
       }
    }
 
-   private void setParams(FulibClassParser.ParameterListContext paramsCtx)
+   private static void parseParams(FulibClassParser.ParameterListContext paramsCtx, Map<String, String> params)
    {
-      this.params.clear();
+      params.clear();
       for (final FulibClassParser.ParameterContext paramCtx : paramsCtx.parameter())
       {
          final String name = paramCtx.IDENTIFIER().getText();
@@ -264,7 +324,7 @@ public class FMethod
          {
             type += "...";
          }
-         this.params.put(name, type);
+         params.put(name, type);
       }
    }
 
@@ -282,6 +342,7 @@ public class FMethod
 
       final String oldValue = this.annotations;
       this.annotations = value;
+      this.invalidateCache();
       this.firePropertyChange(PROPERTY_ANNOTATIONS, oldValue, value);
       return this;
    }
@@ -313,6 +374,7 @@ public class FMethod
 
       final String oldValue = this.modifiers;
       this.modifiers = value;
+      this.invalidateCache();
       this.firePropertyChange(PROPERTY_MODIFIERS, oldValue, value);
       return this;
    }
@@ -343,8 +405,13 @@ public class FMethod
     */
    public String getParamsString()
    {
-      return this.getParams().entrySet().stream().map(e -> e.getValue() + " " + e.getKey())
-                 .collect(Collectors.joining(", "));
+      this.validateCache();
+      if (this.paramsString == null)
+      {
+         this.paramsString = this.getParams().entrySet().stream().map(e -> e.getValue() + " " + e.getKey())
+                                 .collect(Collectors.joining(", "));
+      }
+      return this.paramsString;
    }
 
    /**
@@ -356,7 +423,8 @@ public class FMethod
       final FulibClassLexer lexer = new FulibClassLexer(input);
       final FulibClassParser parser = new FulibClassParser(new CommonTokenStream(lexer));
 
-      this.setParams(parser.parameterList());
+      parseParams(parser.parameterList(), this.params);
+      this.invalidateCache();
 
       return this;
    }
@@ -369,18 +437,31 @@ public class FMethod
     */
    public String getSignature()
    {
-      final CharStream input = CharStreams.fromString("(" + this.getParamsString() + ")");
-      final FulibClassLexer lexer = new FulibClassLexer(input);
-      final FulibClassParser parser = new FulibClassParser(new CommonTokenStream(lexer));
-      final FulibClassParser.ParameterListContext paramsCtx = parser.parameterList();
-      final String paramsSignature = FragmentMapBuilder.getParamsSignature(paramsCtx);
+      final String className = this.getClazz().getName();
+
+      this.validateCache();
+      if (this.signature != null && Objects.equals(className, this.signatureClassName))
+      {
+         return this.signature;
+      }
+
+      if (this.paramsSignature == null)
+      {
+         final CharStream input = CharStreams.fromString("(" + this.getParamsString() + ")");
+         final FulibClassLexer lexer = new FulibClassLexer(input);
+         final FulibClassParser parser = new FulibClassParser(new CommonTokenStream(lexer));
+         final FulibClassParser.ParameterListContext paramsCtx = parser.parameterList();
+         this.paramsSignature = FragmentMapBuilder.getParamsSignature(paramsCtx);
+      }
 
       final int parameterCount = this.params.size() - (this.params.containsKey("this") ? 1 : 0);
       final String kind = Validator.isProperty(this.getName(), parameterCount)
          ? FileFragmentMap.PROPERTY
          : FileFragmentMap.METHOD;
-      return FileFragmentMap.CLASS + '/' + this.getClazz().getName() + '/' + kind + '/' + this.getName()
-             + paramsSignature;
+      this.signature = FileFragmentMap.CLASS + '/' + className + '/' + kind + '/' + this.getName()
+                       + this.paramsSignature;
+      this.signatureClassName = className;
+      return this.signature;
    }
 
    /**
@@ -397,6 +478,7 @@ public class FMethod
    public FMethod setReturnType(String value)
    {
       this.returnType = value;
+      this.invalidateCache();
       return this;
    }
 
@@ -592,6 +674,67 @@ public class FMethod
       this.setClazz(null);
    }
 
+   // --------------- Caches ---------------
+
+   private void invalidateCache()
+   {
+      this.declaration = null;
+      this.paramsString = null;
+      this.paramsSignature = null;
+      this.signature = null;
+      this.signatureClassName = null;
+   }
+
+   private void validateCache()
+   {
+      // the maps may have been modified via getParams() or getTypeParams()
+      if (!hasEntries(this.params, this.cachedParams) || !hasEntries(this.typeParams, this.cachedTypeParams))
+      {
+         this.invalidateCache();
+         this.cachedParams = snapshot(this.params);
+         this.cachedTypeParams = snapshot(this.typeParams);
+      }
+   }
+
+   private static String[] snapshot(Map<String, String> map)
+   {
+      final String[] result = new String[map.size() * 2];
+      int i = 0;
+      for (final Map.Entry<String, String> entry : map.entrySet())
+      {
+         result[i++] = entry.getKey();
+         result[i++] = entry.getValue();
+      }
+      return result;
+   }
+
+   private static boolean hasEntries(Map<String, String> map, String[] snapshot)
+   {
+      if (snapshot == null || snapshot.length != map.size() * 2)
+      {
+         return false;
+      }
+
+      int i = 0;
+      for (final Map.Entry<String, String> entry : map.entrySet())
+      {
+         if (!Objects.equals(entry.getKey(), snapshot[i++]) || !Objects.equals(entry.getValue(), snapshot[i++]))
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private static void setEntries(Map<String, String> map, String[] snapshot)
+   {
+      map.clear();
+      for (int i = 0; i < snapshot.length; i += 2)
+      {
+         map.put(snapshot[i], snapshot[i + 1]);
+      }
+   }
+
    @Override
    public String toString() // no fulib
    {
@@ -601,4 +744,27 @@ public class FMethod
       result.append(' ').append(this.getAnnotations());
       return result.substring(1);
    }
+
+   // =============== Classes ===============
+
+   private static class Declaration
+   {
+      final String annotations;
+      final String modifiers;
+      final String[] typeParams;
+      final String returnType;
+      final String name;
+      final String[] params;
+
+      Declaration(String annotations, String modifiers, String[] typeParams, String returnType, String name,
+         String[] params)
+      {
+         this.annotations = annotations;
+         this.modifiers = modifiers;
+         this.typeParams = typeParams;
+         this.returnType = returnType;
+         this.name = name;
+         this.params = params;
+      }
+   }
 }
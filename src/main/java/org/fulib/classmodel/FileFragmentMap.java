@@ -5,18 +5,20 @@ import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.fulib.parser.FulibClassLexer;
 import org.fulib.parser.FulibClassParser;
+import org.fulib.util.FlightRecorderEvents;
+import org.fulib.util.SourceFiles;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.io.IOException;
-import java.io.StringWriter;
 import java.io.Writer;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -65,6 +67,9 @@ public class FileFragmentMap
 
    private static final String GAP_BEFORE = "#gap-before";
 
+   // marks keys of the fragment index that are used by more than one fragment
+   private static final CodeFragment AMBIGUOUS = new CodeFragment();
+
    // =============== Fields ===============
 
    protected PropertyChangeSupport listeners;
@@ -73,6 +78,15 @@ public class FileFragmentMap
 
    private final CompoundFragment root;
 
+   // full key -> code fragment, for all code fragments added via append or insert
+   private final Map<String, CodeFragment> fragmentIndex = new HashMap<>();
+
+   // counts of the changes made via add and remove, for generation metrics
+   private int addedCount;
+   private int replacedCount;
+   private int removedCount;
+   private int skippedCount;
+
    // =============== Constructors ===============
 
    public FileFragmentMap()
@@ -106,6 +120,48 @@ public class FileFragmentMap
       return this;
    }
 
+   /**
+    * @return the number of fragments added via {@link #add(String, String, int)} since this map was created
+    *
+    * @since 1.6
+    */
+   public int getAddedCount()
+   {
+      return this.addedCount;
+   }
+
+   /**
+    * @return the number of existing fragments whose text was changed via {@link #add(String, String, int)}
+    * since this map was created. Fragments that are regenerated with the same text do not count.
+    *
+    * @since 1.6
+    */
+   public int getReplacedCount()
+   {
+      return this.replacedCount;
+   }
+
+   /**
+    * @return the number of fragments removed via {@link #remove(String)} since this map was created
+    *
+    * @since 1.6
+    */
+   public int getRemovedCount()
+   {
+      return this.removedCount;
+   }
+
+   /**
+    * @return the number of fragments that {@link #add(String, String, int)} or {@link #remove(String)} left untouched
+    * since this map was created, because they contain a "no fulib" comment
+    *
+    * @since 1.6
+    */
+   public int getSkippedCount()
+   {
+      return this.skippedCount;
+   }
+
    /**
     * @return a stream of all code fragments containing text
     *
@@ -144,6 +200,10 @@ public class FileFragmentMap
    }
 
    /**
+    * Looks up the code fragment with the given key in constant time, using an index of all fragments that were added
+    * via {@link #append(CodeFragment)}, {@link #insert(CodeFragment)} or {@link #add(String, String, int)}.
+    * If multiple fragments share the key, the first one in document order is returned.
+    *
     * @param key
     *    the key to search for
     *
@@ -152,7 +212,67 @@ public class FileFragmentMap
     */
    public CodeFragment getFragment(String key)
    {
-      return findFragment(this.root, getParentKeys(key), 0, key);
+      final CodeFragment indexed = this.fragmentIndex.get(key);
+      if (indexed == null)
+      {
+         return null;
+      }
+      if (indexed != AMBIGUOUS && key.equals(indexed.getKey()) && this.isAttached(indexed))
+      {
+         return indexed;
+      }
+
+      // the key is used multiple times (e.g. by appending duplicate members), or the fragment was moved or renamed
+      // since it was indexed - fall back to searching the tree, which finds the first fragment in document order
+      final CodeFragment found = findFragment(this.root, getParentKeys(key), 0, key);
+      if (indexed != AMBIGUOUS)
+      {
+         if (found != null)
+         {
+            this.fragmentIndex.put(key, found);
+         }
+         else
+         {
+            this.fragmentIndex.remove(key);
+         }
+      }
+      return found;
+   }
+
+   private boolean isAttached(Fragment fragment)
+   {
+      for (Fragment ancestor = fragment.getParent(); ancestor != null; ancestor = ancestor.getParent())
+      {
+         if (ancestor == this.root)
+         {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private void index(CodeFragment fragment)
+   {
+      final String key = fragment.getKey();
+      final CodeFragment existing = this.fragmentIndex.get(key);
+      if (existing == null || existing == fragment || existing != AMBIGUOUS && !(key.equals(existing.getKey())
+                                                                                  && this.isAttached(existing)))
+      {
+         this.fragmentIndex.put(key, fragment);
+      }
+      else
+      {
+         this.fragmentIndex.put(key, AMBIGUOUS);
+      }
+   }
+
+   private void unindex(CodeFragment fragment)
+   {
+      final String key = fragment.getKey();
+      if (this.fragmentIndex.get(key) == fragment)
+      {
+         this.fragmentIndex.remove(key);
+      }
    }
 
    private static CodeFragment findFragment(CompoundFragment parent, String[] parentKeys, int index, String key)
@@ -163,9 +283,9 @@ public class FileFragmentMap
          return child instanceof CodeFragment ? (CodeFragment) child : null;
       }
 
-      for (final Fragment child : parent.getChildren())
+      for (final Fragment child : parent.getChildrenWithKey(parentKeys[index]))
       {
-         if (!(child instanceof CompoundFragment) || !child.getKey().equals(parentKeys[index]))
+         if (!(child instanceof CompoundFragment))
          {
             continue;
          }
@@ -464,6 +584,7 @@ public class FileFragmentMap
       }
 
       next.withChildren(fragment);
+      this.index(fragment);
    }
 
    /**
@@ -528,6 +649,7 @@ public class FileFragmentMap
       }
 
       parent.withChildren(fragment);
+      this.index(fragment);
    }
 
    /**
@@ -551,9 +673,14 @@ public class FileFragmentMap
       if (gapBefore != null)
       {
          parent.withoutChildren(gapBefore);
+         if (gapBefore instanceof CodeFragment)
+         {
+            this.unindex((CodeFragment) gapBefore);
+         }
       }
 
       parent.withoutChildren(fragment);
+      this.unindex(fragment);
    }
 
    // --------------- Smart Modification ---------------
@@ -631,6 +758,7 @@ public class FileFragmentMap
             return null;
          }
 
+         this.addedCount++;
          return this.addNew(key, newText, newLines);
       }
 
@@ -638,11 +766,13 @@ public class FileFragmentMap
       if (NO_FULIB_PATTERN.matcher(oldText).find())
       {
          // do not overwrite
+         this.skippedCount++;
          return old;
       }
 
       if (newText == null)
       {
+         this.removedCount++;
          this.remove(old);
          return old;
       }
@@ -662,7 +792,12 @@ public class FileFragmentMap
          newText = mergeAttributeDecl(oldText, newText);
       }
 
-      old.setText(newText.trim());
+      final String trimmedText = newText.trim();
+      if (!trimmedText.equals(oldText))
+      {
+         this.replacedCount++;
+         old.setText(trimmedText);
+      }
 
       return old;
    }
@@ -755,22 +890,95 @@ public class FileFragmentMap
     */
    public void writeFile()
    {
+      this.writeFile(false);
+   }
+
+   /**
+    * Concatenates all code fragments and writes the resulting text to the file specified by {@link #getFileName()}.
+    * The text is built in a buffer of the exact size and written with a single channel write.
+    *
+    * @param atomic
+    *    whether to write a temporary file first and rename it, so that readers never see a partially written file
+    *
+    * @since 1.6
+    */
+   public void writeFile(boolean atomic)
+   {
+      final Object event = FlightRecorderEvents.WRITE.begin();
       final Path path = Paths.get(this.fileName);
       try
       {
-         Files.createDirectories(path.getParent());
-
-         try (final Writer writer = Files.newBufferedWriter(path, StandardOpenOption.CREATE,
-                                                            StandardOpenOption.TRUNCATE_EXISTING))
-         {
-            this.write(writer);
-         }
+         SourceFiles.write(path, this.buildText(), atomic);
       }
       catch (IOException e)
       {
          // TODO better error handling
          e.printStackTrace();
       }
+      this.commitWriteEvent(event, true);
+   }
+
+   /**
+    * Concatenates all code fragments and writes the resulting text to the file specified by {@link #getFileName()},
+    * but only if the file does not already contain exactly that text.
+    * Unchanged files keep their modification time.
+    * Errors are reported to the global {@link Logger}.
+    *
+    * @return {@code true} if the file was written, {@code false} if it was already up to date or could not be written
+    *
+    * @since 1.6
+    */
+   public boolean writeFileIfChanged()
+   {
+      return this.writeFileIfChanged(false);
+   }
+
+   /**
+    * Like {@link #writeFileIfChanged()}, but optionally writes atomically.
+    *
+    * @param atomic
+    *    whether to write a temporary file first and rename it, so that readers never see a partially written file
+    *
+    * @return {@code true} if the file was written, {@code false} if it was already up to date or could not be written
+    *
+    * @since 1.6
+    */
+   public boolean writeFileIfChanged(boolean atomic)
+   {
+      final Object event = FlightRecorderEvents.WRITE.begin();
+      final Path path = Paths.get(this.fileName);
+      boolean written = false;
+      try
+      {
+         written = SourceFiles.writeIfChanged(path, this.buildText(), atomic);
+      }
+      catch (IOException e)
+      {
+         Logger.getGlobal().log(Level.SEVERE, "\n   could not write " + this.fileName, e);
+      }
+      this.commitWriteEvent(event, written);
+      return written;
+   }
+
+   private void commitWriteEvent(Object event, boolean written)
+   {
+      if (event == null)
+      {
+         return;
+      }
+
+      String className = null;
+      for (final String key : this.fragmentIndex.keySet())
+      {
+         final Matcher matcher = CLASS_DECL_PATTERN.matcher(key);
+         if (matcher.matches())
+         {
+            className = matcher.group(1);
+            break;
+         }
+      }
+
+      FlightRecorderEvents.WRITE.commit(event, this.fileName, className, (int) this.codeFragments().count(), written);
    }
 
    /**
@@ -783,7 +991,15 @@ public class FileFragmentMap
     */
    public void write(Writer writer) throws IOException
    {
-      this.root.write(writer);
+      writer.append(this.buildText());
+   }
+
+   private StringBuilder buildText()
+   {
+      // sizing the builder up front avoids repeated growing and copying
+      final StringBuilder builder = new StringBuilder(this.root.getTextLength());
+      this.root.appendText(builder);
+      return builder;
    }
 
    // --------------- Property Change Support ---------------
@@ -846,16 +1062,6 @@ public class FileFragmentMap
    @Override // no fulib
    public String toString()
    {
-      final StringWriter result = new StringWriter();
-
-      try
-      {
-         this.write(result);
-      }
-      catch (IOException ignored)
-      {
-      }
-
-      return result.toString();
+      return this.buildText().toString();
    }
 }
@@ -42,6 +42,10 @@ public class Fragment
 
       final String oldValue = this.key;
       this.key = value;
+      if (this.parent != null)
+      {
+         this.parent.childKeyChanged(this, oldValue);
+      }
       this.firePropertyChange(PROPERTY_KEY, oldValue, value);
       return this;
    }
@@ -80,6 +84,29 @@ public class Fragment
       throw new AbstractMethodError();
    }
 
+   /**
+    * @return the length of the text {@link #write(Writer)} would write
+    *
+    * @since 1.6
+    */
+   int getTextLength()
+   {
+      throw new AbstractMethodError();
+   }
+
+   /**
+    * Appends the text {@link #write(Writer)} would write.
+    *
+    * @param builder
+    *    the builder
+    *
+    * @since 1.6
+    */
+   void appendText(StringBuilder builder)
+   {
+      throw new AbstractMethodError();
+   }
+
    public boolean firePropertyChange(String propertyName, Object oldValue, Object newValue)
    {
       if (this.listeners != null)
@@ -0,0 +1,101 @@
+package org.fulib.classmodel;
+
+import java.util.*;
+
+/**
+ * Maps names to the model elements with that name, in the order of the list that owns them.
+ * The owner keeps the index in sync when elements are added, removed or renamed.
+ *
+ * @param <T>
+ *    the element type
+ *
+ * @since 1.6
+ */
+class NameIndex<T>
+{
+   // =============== Fields ===============
+
+   private final Map<String, List<T>> elements = new HashMap<>();
+
+   // =============== Methods ===============
+
+   /**
+    * @param name
+    *    the name
+    *
+    * @return the first element with the given name, or {@code null} if there is none
+    */
+   T get(String name)
+   {
+      final List<T> list = this.elements.get(name);
+      return list != null ? list.get(0) : null;
+   }
+
+   /**
+    * @param name
+    *    the name
+    *
+    * @return an unmodifiable list of all elements with the given name
+    */
+   List<T> getAll(String name)
+   {
+      final List<T> list = this.elements.get(name);
+      return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+   }
+
+   boolean contains(T element, String name)
+   {
+      final List<T> list = this.elements.get(name);
+      return list != null && list.contains(element);
+   }
+
+   /**
+    * Adds an element that was appended to the owner list.
+    */
+   void add(T element, String name)
+   {
+      this.elements.computeIfAbsent(name, k -> new ArrayList<>(1)).add(element);
+   }
+
+   void remove(T element, String name)
+   {
+      final List<T> list = this.elements.get(name);
+      if (list != null && list.remove(element) && list.isEmpty())
+      {
+         this.elements.remove(name);
+      }
+   }
+
+   /**
+    * Moves an element to its new name.
+    *
+    * @param element
+    *    the element
+    * @param oldName
+    *    the old name
+    * @param newName
+    *    the new name
+    * @param order
+    *    the owner list, used to keep elements with the same name in order
+    */
+   void rename(T element, String oldName, String newName, List<T> order)
+   {
+      this.remove(element, oldName);
+
+      final List<T> list = this.elements.computeIfAbsent(newName, k -> new ArrayList<>(1));
+      if (list.isEmpty())
+      {
+         list.add(element);
+         return;
+      }
+
+      // duplicate names are rare, so the linear search is fine
+      final int position = order.indexOf(element);
+      int index = 0;
+      while (index < list.size() && order.indexOf(list.get(index)) < position)
+      {
+         index++;
+      }
+      list.add(index, element);
+   }
+}
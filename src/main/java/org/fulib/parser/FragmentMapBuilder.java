@@ -1,11 +1,14 @@
 package org.fulib.parser;
 
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.fulib.classmodel.CodeFragment;
 import org.fulib.classmodel.FileFragmentMap;
+import org.fulib.util.FlightRecorderEvents;
 import org.fulib.parser.FulibClassParser.*;
 
 import java.io.IOException;
@@ -30,6 +33,7 @@ public class FragmentMapBuilder extends FulibClassBaseListener
    private final CharStream input;
    private final CommonTokenStream tokenStream;
    private final FileFragmentMap map;
+   private final Recorder recorder;
 
    private int lastFragmentEndPos = -1;
    private String className;
@@ -51,10 +55,17 @@ public class FragmentMapBuilder extends FulibClassBaseListener
    }
 
    private FragmentMapBuilder(CharStream input, CommonTokenStream tokenStream, FileFragmentMap map)
+   {
+      this(input, tokenStream, map, null);
+   }
+
+   private FragmentMapBuilder(CharStream input, CommonTokenStream tokenStream, FileFragmentMap map,
+      Recorder recorder)
    {
       this.input = input;
       this.tokenStream = tokenStream;
       this.map = map;
+      this.recorder = recorder;
    }
 
    // =============== Static Methods ===============
@@ -76,18 +87,31 @@ public class FragmentMapBuilder extends FulibClassBaseListener
 
    public static FileFragmentMap parse(String fileName, CharStream input)
    {
+      return parse(fileName, input, null);
+   }
+
+   static FileFragmentMap parse(String fileName, CharStream input, Recorder recorder)
+   {
+      return parse(fileName, input, recorder, true);
+   }
+
+   // package-private for benchmarking
+   static FileFragmentMap parse(String fileName, CharStream input, Recorder recorder, boolean sllFirst)
+   {
+      final Object event = FlightRecorderEvents.PARSE.begin();
+
       final FulibClassLexer lexer = new FulibClassLexer(input);
       final CommonTokenStream tokenStream = new CommonTokenStream(lexer);
       final FulibClassParser parser = new FulibClassParser(tokenStream);
       parser.removeErrorListeners();
 
       final StringWriter writer = new StringWriter();
-      parser.addErrorListener(new FulibErrorHandler(new PrintWriter(writer)));
-
-      final FileContext context = parser.file();
+      final FileContext context = sllFirst ?
+         parseTwoStage(parser, tokenStream, writer) :
+         parseLL(parser, writer);
 
       final FileFragmentMap map = new FileFragmentMap(fileName);
-      final FragmentMapBuilder builder = new FragmentMapBuilder(input, tokenStream, map);
+      final FragmentMapBuilder builder = new FragmentMapBuilder(input, tokenStream, map, recorder);
       ParseTreeWalker.DEFAULT.walk(builder, context);
 
       final String errors = writer.toString();
@@ -96,11 +120,65 @@ public class FragmentMapBuilder extends FulibClassBaseListener
          throw new IllegalArgumentException(fileName + " contained syntax errors, aborting:\n" + errors);
       }
 
+      if (event != null)
+      {
+         FlightRecorderEvents.PARSE
+            .commit(event, fileName, builder.className, (int) map.codeFragments().count(), false);
+      }
       return map;
    }
 
+   /**
+    * Parses with the faster SLL prediction mode first, which bails out on the first syntax error.
+    * Only if that fails, the input is parsed again with full LL prediction and regular error reporting.
+    * SLL either succeeds with the same result as LL, or fails for inputs that need full LL context
+    * or contain actual syntax errors, so the reported errors stay the same.
+    */
+   private static FileContext parseTwoStage(FulibClassParser parser, CommonTokenStream tokenStream,
+      StringWriter writer)
+   {
+      parser.setErrorHandler(new BailErrorStrategy());
+      parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+      try
+      {
+         return parser.file();
+      }
+      catch (ParseCancellationException ex)
+      {
+         tokenStream.seek(0);
+         parser.reset();
+         parser.setErrorHandler(new DefaultErrorStrategy());
+         return parseLL(parser, writer);
+      }
+   }
+
+   private static FileContext parseLL(FulibClassParser parser, StringWriter writer)
+   {
+      parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+      parser.addErrorListener(new FulibErrorHandler(new PrintWriter(writer)));
+      return parser.file();
+   }
+
    // =============== Methods ===============
 
+   private void append(CodeFragment fragment)
+   {
+      this.map.append(fragment);
+      if (this.recorder != null)
+      {
+         this.recorder.append(fragment);
+      }
+   }
+
+   private void insert(CodeFragment fragment)
+   {
+      this.map.insert(fragment);
+      if (this.recorder != null)
+      {
+         this.recorder.insert(fragment);
+      }
+   }
+
    private void addCodeFragment(String key, ParserRuleContext ctx)
    {
       this.addCodeFragment(key, ctx.getStart(), ctx.getStop());
@@ -135,12 +213,12 @@ public class FragmentMapBuilder extends FulibClassBaseListener
       {
          final String gapText = this.input.getText(Interval.of(this.lastFragmentEndPos + 1, startPos - 1));
          final CodeFragment gap = new CodeFragment().setKey(key + "#gap-before").setText(gapText);
-         this.map.append(gap);
+         this.append(gap);
       }
 
       final String text = this.input.getText(pos);
       final CodeFragment codeFragment = new CodeFragment().setKey(key).setText(text);
-      this.map.append(codeFragment);
+      this.append(codeFragment);
 
       this.lastFragmentEndPos = endPos;
    }
@@ -150,7 +228,7 @@ public class FragmentMapBuilder extends FulibClassBaseListener
    {
       this.addCodeFragment(PACKAGE, ctx);
       // make sure the import/ section gets created by adding a dummy
-      this.map.append(new CodeFragment().setKey(IMPORT + "/#start").setText(""));
+      this.append(new CodeFragment().setKey(IMPORT + "/#start").setText(""));
    }
 
    @Override
@@ -445,13 +523,13 @@ public class FragmentMapBuilder extends FulibClassBaseListener
    public void exitClassDecl(ClassDeclContext ctx)
    {
       // make sure the major sections exist by adding dummies
-      this.map.insert(
+      this.insert(
          new CodeFragment().setKey(CLASS + '/' + this.className + '/' + STATIC_ATTRIBUTE + '/' + "#start").setText(""));
-      this.map.insert(
+      this.insert(
          new CodeFragment().setKey(CLASS + '/' + this.className + '/' + ATTRIBUTE + '/' + "#start").setText(""));
-      this.map.insert(
+      this.insert(
          new CodeFragment().setKey(CLASS + '/' + this.className + '/' + PROPERTY + '/' + "#start").setText(""));
-      this.map.insert(
+      this.insert(
          new CodeFragment().setKey(CLASS + '/' + this.className + '/' + METHOD + '/' + "#start").setText(""));
       this.addCodeFragment(CLASS + '/' + this.className + '/' + CLASS_END, ctx.classMember().classBody().RBRACE());
    }
@@ -461,4 +539,17 @@ public class FragmentMapBuilder extends FulibClassBaseListener
    {
       this.addCodeFragment(EOF, this.input.size(), this.input.size());
    }
+
+   // =============== Classes ===============
+
+   /**
+    * Receives all modifications the builder makes to the fragment map, in order.
+    * Replaying them on an empty map restores the exact fragment tree.
+    */
+   interface Recorder
+   {
+      void append(CodeFragment fragment);
+
+      void insert(CodeFragment fragment);
+   }
 }
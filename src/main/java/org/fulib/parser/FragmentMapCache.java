@@ -0,0 +1,509 @@
+package org.fulib.parser;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.fulib.classmodel.CodeFragment;
+import org.fulib.classmodel.FileFragmentMap;
+import org.fulib.util.FlightRecorderEvents;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * An on-disk cache of parsed {@link FileFragmentMap}s.
+ * Entries are keyed by the path of the source file and validated against a hash of its content,
+ * so unchanged files are restored from the cache instead of being parsed again.
+ * <p>
+ * Each entry stores the sequence of fragments the {@link FragmentMapBuilder} added to the map,
+ * with their keys, text lengths and whether they were appended or inserted.
+ * Replaying that sequence restores the exact fragment tree.
+ * Entries become invalid when the grammar or the entry format changes.
+ * The total size of the cache directory is bounded; when it is exceeded,
+ * the least recently used entries are deleted until three quarters of the maximum size are left.
+ * The cache keeps track of the size of the entries it writes, so the directory is only scanned
+ * for the first entry and when the maximum size is exceeded.
+ * <p>
+ * Instances are thread-safe, as long as the same source file is not parsed concurrently.
+ * <pre>{@code
+ * Fulib.generator().setParseCache(new FragmentMapCache(Paths.get("build/fulib/parse-cache"))).generate(model);
+ * }</pre>
+ *
+ * @since 1.6
+ */
+public class FragmentMapCache
+{
+   // =============== Constants ===============
+
+   /**
+    * The default maximum size of the cache directory in bytes.
+    */
+   public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+   private static final int MAGIC = 0x46464d43; // FFMC
+
+   // increment when the entry format or the way FragmentMapBuilder builds the map changes
+   private static final int FORMAT_VERSION = 1;
+
+   private static final String GRAMMAR_HASH = toHex(sha256(
+      (FORMAT_VERSION + "\0" + FulibClassLexer._serializedATN + "\0" + FulibClassParser._serializedATN).getBytes(
+         StandardCharsets.UTF_8)));
+
+   private static final String ENTRY_SUFFIX = ".fragments";
+
+   private static final byte APPEND = 0;
+   private static final byte INSERT = 1;
+
+   // =============== Fields ===============
+
+   private final Path directory;
+   private final long maxSize;
+
+   // running estimate of the total size of all entries, or -1 if unknown;
+   // entries written by other processes are only noticed by the next full scan
+   private final AtomicLong estimatedSize = new AtomicLong(-1);
+
+   private final AtomicInteger hitCount = new AtomicInteger();
+   private final AtomicInteger missCount = new AtomicInteger();
+
+   // =============== Constructors ===============
+
+   /**
+    * Creates a cache with the {@linkplain #DEFAULT_MAX_SIZE default maximum size}.
+    *
+    * @param directory
+    *    the directory for cache entries; created if needed
+    */
+   public FragmentMapCache(Path directory)
+   {
+      this(directory, DEFAULT_MAX_SIZE);
+   }
+
+   /**
+    * @param directory
+    *    the directory for cache entries; created if needed
+    * @param maxSize
+    *    the maximum total size of all entries in bytes
+    *
+    * @throws IllegalArgumentException
+    *    if {@code maxSize} is negative
+    */
+   public FragmentMapCache(Path directory, long maxSize)
+   {
+      if (maxSize < 0)
+      {
+         throw new IllegalArgumentException("negative max size: " + maxSize);
+      }
+      this.directory = directory;
+      this.maxSize = maxSize;
+   }
+
+   // =============== Properties ===============
+
+   public Path getDirectory()
+   {
+      return this.directory;
+   }
+
+   public long getMaxSize()
+   {
+      return this.maxSize;
+   }
+
+   /**
+    * @return the number of files restored from the cache
+    */
+   public int getHitCount()
+   {
+      return this.hitCount.get();
+   }
+
+   /**
+    * @return the number of files that had to be parsed
+    */
+   public int getMissCount()
+   {
+      return this.missCount.get();
+   }
+
+   // =============== Methods ===============
+
+   /**
+    * Behaves like {@link FragmentMapBuilder#parse(String)}, but restores the result from the cache if the file did
+    * not change since it was last parsed.
+    *
+    * @param fileName
+    *    the name of the Java source file
+    *
+    * @return the fragment map of the file
+    *
+    * @throws IllegalArgumentException
+    *    if the file cannot be read or contains syntax errors
+    */
+   public FileFragmentMap parse(String fileName)
+   {
+      // misses emit their event from FragmentMapBuilder.parse
+      final Object event = FlightRecorderEvents.PARSE.begin();
+
+      final byte[] bytes;
+      try
+      {
+         bytes = Files.readAllBytes(Paths.get(fileName));
+      }
+      catch (IOException e)
+      {
+         throw new IllegalArgumentException("failed to read: " + fileName, e);
+      }
+
+      final String content = new String(bytes, StandardCharsets.UTF_8);
+      final String contentHash = toHex(sha256(bytes));
+      final Path entry = this.getEntryPath(fileName);
+
+      final FileFragmentMap cached = this.read(entry, fileName, contentHash, content);
+      if (cached != null)
+      {
+         this.hitCount.incrementAndGet();
+         if (event != null)
+         {
+            FlightRecorderEvents.PARSE
+               .commit(event, fileName, findClassName(cached), (int) cached.codeFragments().count(), true);
+         }
+         return cached;
+      }
+
+      this.missCount.incrementAndGet();
+
+      final List<Operation> operations = new ArrayList<>();
+      final FileFragmentMap map = FragmentMapBuilder.parse(fileName, CharStreams.fromString(content, fileName),
+                                                           new FragmentMapBuilder.Recorder()
+                                                           {
+                                                              @Override
+                                                              public void append(CodeFragment fragment)
+                                                              {
+                                                                 operations.add(new Operation(APPEND, fragment));
+                                                              }
+
+                                                              @Override
+                                                              public void insert(CodeFragment fragment)
+                                                              {
+                                                                 operations.add(new Operation(INSERT, fragment));
+                                                              }
+                                                           });
+
+      this.write(entry, fileName, contentHash, content, operations);
+      return map;
+   }
+
+   /**
+    * Deletes all cache entries.
+    */
+   public void clear()
+   {
+      this.estimatedSize.set(-1);
+      for (final Path entry : this.listEntries())
+      {
+         try
+         {
+            Files.deleteIfExists(entry);
+         }
+         catch (IOException ignored)
+         {
+            // will be overwritten or evicted later
+         }
+      }
+   }
+
+   private static String findClassName(FileFragmentMap map)
+   {
+      final String prefix = FileFragmentMap.CLASS + '/';
+      final String suffix = '/' + FileFragmentMap.CLASS_DECL;
+      return map.codeFragments()
+                .map(CodeFragment::getKey)
+                .filter(key -> key.startsWith(prefix) && key.endsWith(suffix))
+                .map(key -> key.substring(prefix.length(), key.length() - suffix.length()))
+                .findFirst()
+                .orElse(null);
+   }
+
+   private Path getEntryPath(String fileName)
+   {
+      final String absolutePath = Paths.get(fileName).toAbsolutePath().normalize().toString();
+      return this.directory.resolve(toHex(sha256(absolutePath.getBytes(StandardCharsets.UTF_8))) + ENTRY_SUFFIX);
+   }
+
+   // --------------- Reading ---------------
+
+   private FileFragmentMap read(Path entry, String fileName, String contentHash, String content)
+   {
+      if (!Files.isRegularFile(entry))
+      {
+         return null;
+      }
+
+      try (final DataInputStream input = new DataInputStream(
+         new BufferedInputStream(Files.newInputStream(entry))))
+      {
+         if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION //
+             || !GRAMMAR_HASH.equals(input.readUTF()) || !contentHash.equals(input.readUTF()))
+         {
+            return null;
+         }
+
+         final String absolutePath = Paths.get(fileName).toAbsolutePath().normalize().toString();
+         if (!absolutePath.equals(input.readUTF()))
+         {
+            // hash collision of two paths
+            return null;
+         }
+
+         final FileFragmentMap map = new FileFragmentMap(fileName);
+         final int count = input.readInt();
+         int offset = 0;
+         for (int i = 0; i < count; i++)
+         {
+            final byte operation = input.readByte();
+            final String key = input.readUTF();
+            final int length = input.readInt();
+            if (length < 0 || offset + length > content.length())
+            {
+               return null;
+            }
+
+            final CodeFragment fragment = new CodeFragment().setKey(key)
+                                                            .setText(content.substring(offset, offset + length));
+            offset += length;
+
+            if (operation == INSERT)
+            {
+               map.insert(fragment);
+            }
+            else
+            {
+               map.append(fragment);
+            }
+         }
+
+         if (offset != content.length())
+         {
+            return null;
+         }
+
+         // mark as recently used
+         Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+         return map;
+      }
+      catch (IOException | RuntimeException e)
+      {
+         // corrupt or concurrently evicted entry, parse again
+         return null;
+      }
+   }
+
+   // --------------- Writing ---------------
+
+   private void write(Path entry, String fileName, String contentHash, String content, List<Operation> operations)
+   {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      int offset = 0;
+      try (final DataOutputStream output = new DataOutputStream(bytes))
+      {
+         output.writeInt(MAGIC);
+         output.writeInt(FORMAT_VERSION);
+         output.writeUTF(GRAMMAR_HASH);
+         output.writeUTF(contentHash);
+         output.writeUTF(Paths.get(fileName).toAbsolutePath().normalize().toString());
+         output.writeInt(operations.size());
+
+         for (final Operation operation : operations)
+         {
+            final String text = operation.fragment.getText();
+
+            // the texts of all fragments must add up to the file content, otherwise we cannot restore it
+            if (!content.startsWith(text, offset))
+            {
+               return;
+            }
+            offset += text.length();
+
+            output.writeByte(operation.type);
+            output.writeUTF(operation.fragment.getKey());
+            output.writeInt(text.length());
+         }
+      }
+      catch (IOException | RuntimeException e)
+      {
+         // e.g. a key longer than writeUTF supports; just do not cache this file
+         return;
+      }
+
+      if (offset != content.length())
+      {
+         return;
+      }
+
+      try
+      {
+         Files.createDirectories(this.directory);
+
+         final long oldSize = Files.exists(entry) ? Files.size(entry) : 0;
+         final long delta = bytes.size() - oldSize;
+
+         // write to a temporary file first, so concurrent readers never see a partial entry
+         final Path temp = Files.createTempFile(this.directory, "entry", ".tmp");
+         try
+         {
+            Files.write(temp, bytes.toByteArray());
+            try
+            {
+               Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+               Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            this.estimatedSize.updateAndGet(size -> size < 0 ? size : size + delta);
+         }
+         finally
+         {
+            Files.deleteIfExists(temp);
+         }
+      }
+      catch (IOException e)
+      {
+         // caching is best-effort
+         return;
+      }
+
+      final long size = this.estimatedSize.get();
+      if (size < 0 || size > this.maxSize)
+      {
+         this.evict();
+      }
+   }
+
+   // --------------- Eviction ---------------
+
+   // scans the whole directory, so it only runs when the size estimate is unknown or exceeds the maximum size
+   private void evict()
+   {
+      final List<Path> entries = this.listEntries();
+      final long[] sizes = new long[entries.size()];
+      final long[] times = new long[entries.size()];
+      final Integer[] order = new Integer[entries.size()];
+      long totalSize = 0;
+
+      for (int i = 0; i < entries.size(); i++)
+      {
+         order[i] = i;
+         try
+         {
+            sizes[i] = Files.size(entries.get(i));
+            times[i] = Files.getLastModifiedTime(entries.get(i)).toMillis();
+         }
+         catch (IOException e)
+         {
+            // deleted concurrently
+            sizes[i] = 0;
+            times[i] = Long.MIN_VALUE;
+         }
+         totalSize += sizes[i];
+      }
+
+      if (totalSize <= this.maxSize)
+      {
+         this.estimatedSize.set(totalSize);
+         return;
+      }
+
+      // least recently used first
+      Arrays.sort(order, (a, b) -> Long.compare(times[a], times[b]));
+
+      // leave some room, so the next few entries do not trigger another scan
+      final long targetSize = this.maxSize / 4 * 3;
+      for (final int i : order)
+      {
+         if (totalSize <= targetSize)
+         {
+            break;
+         }
+
+         try
+         {
+            Files.deleteIfExists(entries.get(i));
+         }
+         catch (IOException ignored)
+         {
+            continue;
+         }
+         totalSize -= sizes[i];
+      }
+      this.estimatedSize.set(totalSize);
+   }
+
+   private List<Path> listEntries()
+   {
+      final List<Path> result = new ArrayList<>();
+      if (!Files.isDirectory(this.directory))
+      {
+         return result;
+      }
+
+      try (final Stream<Path> files = Files.list(this.directory))
+      {
+         files.filter(path -> path.getFileName().toString().endsWith(ENTRY_SUFFIX)).forEach(result::add);
+      }
+      catch (IOException ignored)
+      {
+         // nothing to list
+      }
+      return result;
+   }
+
+   // =============== Static Methods ===============
+
+   private static byte[] sha256(byte[] bytes)
+   {
+      try
+      {
+         return MessageDigest.getInstance("SHA-256").digest(bytes);
+      }
+      catch (NoSuchAlgorithmException e)
+      {
+         // every Java platform is required to support SHA-256
+         throw new IllegalStateException(e);
+      }
+   }
+
+   private static String toHex(byte[] bytes)
+   {
+      final StringBuilder builder = new StringBuilder(bytes.length * 2);
+      for (final byte b : bytes)
+      {
+         builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return builder.toString();
+   }
+
+   // =============== Classes ===============
+
+   private static class Operation
+   {
+      final byte type;
+      final CodeFragment fragment;
+
+      Operation(byte type, CodeFragment fragment)
+      {
+         this.type = type;
+         this.fragment = fragment;
+      }
+   }
+}
@@ -1,20 +1,19 @@
 package org.fulib.util;
 
 import org.fulib.Generator;
+import org.fulib.MetricsListener;
 import org.fulib.classmodel.Clazz;
 import org.fulib.classmodel.FileFragmentMap;
 import org.fulib.parser.FragmentMapBuilder;
 import org.stringtemplate.v4.ST;
 import org.stringtemplate.v4.STGroup;
-import org.stringtemplate.v4.STGroupFile;
-import org.stringtemplate.v4.StringRenderer;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -37,7 +36,7 @@ public abstract class AbstractGenerator4ClassFile
 
    private String customTemplatesFile;
 
-   private Map<String, STGroup> stGroups = new HashMap<>();
+   private MetricsListener metricsListener;
 
    // =============== Properties ===============
 
@@ -52,6 +51,30 @@ public abstract class AbstractGenerator4ClassFile
       return this;
    }
 
+   /**
+    * @return the listener that receives template render timings, or {@code null}
+    *
+    * @since 1.6
+    */
+   public MetricsListener getMetricsListener()
+   {
+      return this.metricsListener;
+   }
+
+   /**
+    * @param metricsListener
+    *    the listener that receives template render timings, or {@code null}
+    *
+    * @return this instance, to allow call chaining
+    *
+    * @since 1.6
+    */
+   public AbstractGenerator4ClassFile setMetricsListener(MetricsListener metricsListener)
+   {
+      this.metricsListener = metricsListener;
+      return this;
+   }
+
    // =============== Methods ===============
 
    /**
@@ -89,6 +112,20 @@ public abstract class AbstractGenerator4ClassFile
 
    public abstract String getSourceFileName(Clazz clazz);
 
+   /**
+    * Lists the template files this generator may load via {@link #getSTGroup(String)}.
+    * Files imported by these templates do not need to be listed.
+    * Incremental generation uses this to detect template changes.
+    *
+    * @return the names of the template files
+    *
+    * @since 1.6
+    */
+   public Collection<String> getTemplateFileNames()
+   {
+      return Collections.emptyList();
+   }
+
    /**
     * @since 1.2
     */
@@ -108,26 +145,19 @@ public abstract class AbstractGenerator4ClassFile
       return this.getSTGroup(origFileName);
    }
 
+   /**
+    * Returns the compiled ST group for the template file, combined with the {@linkplain #getCustomTemplatesFile()
+    * custom template file}.
+    * Groups are shared by all generators via the {@link STGroupCache}.
+    *
+    * @param origFileName
+    *    the original template file name
+    *
+    * @return the loaded ST group
+    */
    public STGroup getSTGroup(String origFileName)
    {
-      return this.stGroups.computeIfAbsent(origFileName, this::loadSTGroup);
-   }
-
-   private STGroup loadSTGroup(String origFileName)
-   {
-      STGroup group;
-      try
-      {
-         group = new STGroupFile(this.customTemplatesFile);
-         STGroup origGroup = new STGroupFile(origFileName);
-         group.importTemplates(origGroup);
-      }
-      catch (Exception e)
-      {
-         group = new STGroupFile(origFileName);
-      }
-      group.registerRenderer(String.class, new FulibStringRenderer());
-      return group;
+      return STGroupCache.getSTGroup(origFileName, this.customTemplatesFile);
    }
 
    /**
@@ -196,7 +226,7 @@ public abstract class AbstractGenerator4ClassFile
    {
       final ST signatureST = group.getInstanceOf(signaturesTemplate);
       addTarget.accept(signatureST);
-      final String signatureString = signatureST.render();
+      final String signatureString = this.render(signatureST);
 
       for (final String line : signatureString.split("\n"))
       {
@@ -222,13 +252,55 @@ public abstract class AbstractGenerator4ClassFile
             final ST namedST = group.getInstanceOf(templateName);
             addTarget.accept(namedST);
 
-            final String rendered = namedST.render();
+            final Object event = FlightRecorderEvents.RENDER.begin();
+            final String rendered = this.render(namedST);
+            if (event != null)
+            {
+               FlightRecorderEvents.RENDER.commit(event, fragmentMap.getFileName(), signatureClassName(signature),
+                                                  templateName);
+            }
             final String result = replaceImports(rendered, fragmentMap);
             fragmentMap.add(signature, result, newLines);
          }
       }
    }
 
+   // signatures have the format class/<className>/...
+   private static String signatureClassName(String signature)
+   {
+      final int start = CLASS.length() + 1;
+      final int end = signature.indexOf('/', start);
+      return signature.startsWith(CLASS + '/') && end >= 0 ? signature.substring(start, end) : null;
+   }
+
+   /**
+    * Renders the template and reports the time it took to the {@linkplain #getMetricsListener() metrics listener}.
+    *
+    * @param st
+    *    the template
+    *
+    * @return the rendered text
+    *
+    * @since 1.6
+    */
+   protected String render(ST st)
+   {
+      final MetricsListener listener = this.metricsListener;
+      if (listener == null)
+      {
+         return st.render();
+      }
+
+      final long start = System.nanoTime();
+      final String result = st.render();
+      final long nanos = System.nanoTime() - start;
+
+      // names of templates in groups start with a slash
+      final String name = st.getName();
+      listener.phaseCompleted(MetricsListener.Phase.RENDER, name.startsWith("/") ? name.substring(1) : name, nanos);
+      return result;
+   }
+
    private String replaceImports(String template, FileFragmentMap fragmentMap)
    {
       final Matcher matcher = IMPORT_PATTERN.matcher(template);
@@ -267,6 +339,6 @@ public abstract class AbstractGenerator4ClassFile
       final ST importDecl = group.getInstanceOf("importDecl");
       importDecl.add("qualifiedName", qualifiedName);
       importDecl.add("static", isStatic);
-      fragmentMap.add(IMPORT + '/' + qualifiedName, importDecl.render(), IMPORT_NEWLINES);
+      fragmentMap.add(IMPORT + '/' + qualifiedName, this.render(importDecl), IMPORT_NEWLINES);
    }
 }
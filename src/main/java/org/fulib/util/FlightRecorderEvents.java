@@ -0,0 +1,275 @@
+package org.fulib.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Java Flight Recorder event types emitted by fulib, so slow files and templates of a generator run
+ * show up directly in JDK Mission Control.
+ * All events are in the category "fulib".
+ * <p>
+ * The event types are created at runtime through {@code jdk.jfr.EventFactory}, which is accessed reflectively,
+ * so fulib still compiles and runs on Java versions without the {@code jdk.jfr} module.
+ * There, and whenever no recording is running, {@link #begin()} returns {@code null}
+ * without allocating anything, so emitting events costs nothing when recording is disabled.
+ * Usage:
+ * <pre>{@code
+ * final Object event = FlightRecorderEvents.PARSE.begin();
+ * // ... do the work ...
+ * if (event != null)
+ * {
+ *    FlightRecorderEvents.PARSE.commit(event, fileName, className, fragmentCount, false);
+ * }
+ * }</pre>
+ * The values passed to {@link #commit(Object, Object...)} must match the fields of the event type.
+ * <p>
+ * This class is meant for use by fulib itself.
+ *
+ * @since 1.6
+ */
+public final class FlightRecorderEvents
+{
+   // =============== Constants ===============
+
+   private static final String CATEGORY = "fulib";
+
+   /**
+    * parsing an existing source file, or restoring it from a parse cache;
+    * fields: file name, class name, fragment count, whether it was restored from the cache
+    */
+   public static final FlightRecorderEvents PARSE = new FlightRecorderEvents(
+      "org.fulib.Parse", "Parse Source File", "Parsing an existing source file into code fragments",
+      String.class, "fileName", "File Name", //
+      String.class, "className", "Class Name", //
+      int.class, "fragmentCount", "Fragment Count", //
+      boolean.class, "cached", "Cached");
+
+   /** rendering a template of a generated fragment; fields: file name, class name, template name */
+   public static final FlightRecorderEvents RENDER = new FlightRecorderEvents(
+      "org.fulib.Render", "Render Template", "Rendering a template into a code fragment",
+      String.class, "fileName", "File Name", //
+      String.class, "className", "Class Name", //
+      String.class, "template", "Template");
+
+   /** writing a source file; fields: file name, class name, fragment count, whether the file was written */
+   public static final FlightRecorderEvents WRITE = new FlightRecorderEvents(
+      "org.fulib.Write", "Write Source File", "Writing the code fragments of a source file",
+      String.class, "fileName", "File Name", //
+      String.class, "className", "Class Name", //
+      int.class, "fragmentCount", "Fragment Count", //
+      boolean.class, "written", "Written");
+
+   /** loading the class model of the previous run; fields: file name, class count */
+   public static final FlightRecorderEvents LOAD_MODEL = new FlightRecorderEvents(
+      "org.fulib.LoadModel", "Load Class Model", "Deserializing the YAML class model of the previous run",
+      String.class, "fileName", "File Name", //
+      int.class, "classCount", "Class Count");
+
+   /** saving the class model for the next run; fields: file name, class count */
+   public static final FlightRecorderEvents SAVE_MODEL = new FlightRecorderEvents(
+      "org.fulib.SaveModel", "Save Class Model", "Serializing the YAML class model for the next run",
+      String.class, "fileName", "File Name", //
+      int.class, "classCount", "Class Count");
+
+   // =============== Fields ===============
+
+   // jdk.jfr.EventFactory, or null if JFR is not available
+   private final Object factory;
+
+   // jdk.jfr.EventType
+   private final Object eventType;
+
+   // =============== Constructors ===============
+
+   // fields are given as triples of type, name and label
+   private FlightRecorderEvents(String name, String label, String description, Object... fields)
+   {
+      Object factory = null;
+      Object eventType = null;
+      if (Jfr.AVAILABLE)
+      {
+         try
+         {
+            final List<Object> annotations = Arrays.asList(Jfr.annotation("Name", name),
+                                                           Jfr.annotation("Label", label),
+                                                           Jfr.annotation("Description", description),
+                                                           Jfr.annotation("Category", new String[] { CATEGORY }),
+                                                           Jfr.annotation("StackTrace", false));
+
+            final List<Object> valueDescriptors = new ArrayList<>();
+            for (int i = 0; i < fields.length; i += 3)
+            {
+               final List<Object> fieldAnnotations = Collections.singletonList(
+                  Jfr.annotation("Label", fields[i + 2]));
+               valueDescriptors.add(Jfr.VALUE_DESCRIPTOR.newInstance(fields[i], fields[i + 1], fieldAnnotations));
+            }
+
+            factory = Jfr.CREATE.invoke(annotations, valueDescriptors);
+            eventType = Jfr.GET_EVENT_TYPE.invoke(factory);
+         }
+         catch (Throwable ignored)
+         {
+            // events of this type are not emitted
+            factory = null;
+            eventType = null;
+         }
+      }
+      this.factory = factory;
+      this.eventType = eventType;
+   }
+
+   // =============== Methods ===============
+
+   /**
+    * Creates and begins an event of this type, if a recording is running that has it enabled.
+    *
+    * @return the event, or {@code null} if no event should be recorded
+    */
+   public Object begin()
+   {
+      if (this.factory == null)
+      {
+         return null;
+      }
+
+      try
+      {
+         if (!(boolean) Jfr.IS_ENABLED.invokeExact(this.eventType))
+         {
+            return null;
+         }
+
+         final Object event = Jfr.NEW_EVENT.invokeExact(this.factory);
+         Jfr.BEGIN.invokeExact(event);
+         return event;
+      }
+      catch (Throwable ignored)
+      {
+         return null;
+      }
+   }
+
+   /**
+    * Ends the event, sets its fields and commits it to the recording.
+    *
+    * @param event
+    *    the event returned by {@link #begin()}; {@code null} is ignored
+    * @param values
+    *    the field values, in the order of the fields of this event type
+    */
+   public void commit(Object event, Object... values)
+   {
+      if (event == null)
+      {
+         return;
+      }
+
+      try
+      {
+         for (int i = 0; i < values.length; i++)
+         {
+            Jfr.SET.invokeExact(event, i, values[i]);
+         }
+         Jfr.COMMIT.invokeExact(event);
+      }
+      catch (Throwable ignored)
+      {
+         // a failing event must never break generation
+      }
+   }
+
+   // =============== Classes ===============
+
+   // the reflective entry points into jdk.jfr, initialized once
+   private static final class Jfr
+   {
+      static final boolean AVAILABLE;
+
+      static final Constructor<?> ANNOTATION_ELEMENT;
+      static final Constructor<?> VALUE_DESCRIPTOR;
+
+      static final MethodHandle CREATE;
+      static final MethodHandle GET_EVENT_TYPE;
+
+      // all adapted to Object parameters and results, so they can be called with invokeExact
+      static final MethodHandle IS_ENABLED;
+      static final MethodHandle NEW_EVENT;
+      static final MethodHandle BEGIN;
+      static final MethodHandle SET;
+      static final MethodHandle COMMIT;
+
+      static
+      {
+         boolean available = false;
+         Constructor<?> annotationElement = null;
+         Constructor<?> valueDescriptor = null;
+         MethodHandle create = null;
+         MethodHandle getEventType = null;
+         MethodHandle isEnabled = null;
+         MethodHandle newEvent = null;
+         MethodHandle begin = null;
+         MethodHandle set = null;
+         MethodHandle commit = null;
+
+         try
+         {
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+            final Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType");
+            final Class<?> eventClass = Class.forName("jdk.jfr.Event");
+
+            annotationElement = Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+            valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor")
+                                   .getConstructor(Class.class, String.class, List.class);
+
+            create = lookup.findStatic(factoryClass, "create",
+                                       MethodType.methodType(factoryClass, List.class, List.class));
+            getEventType = lookup.findVirtual(factoryClass, "getEventType", MethodType.methodType(eventTypeClass));
+
+            isEnabled = lookup
+               .findVirtual(eventTypeClass, "isEnabled", MethodType.methodType(boolean.class))
+               .asType(MethodType.methodType(boolean.class, Object.class));
+            newEvent = lookup
+               .findVirtual(factoryClass, "newEvent", MethodType.methodType(eventClass))
+               .asType(MethodType.methodType(Object.class, Object.class));
+            begin = lookup
+               .findVirtual(eventClass, "begin", MethodType.methodType(void.class))
+               .asType(MethodType.methodType(void.class, Object.class));
+            set = lookup
+               .findVirtual(eventClass, "set", MethodType.methodType(void.class, int.class, Object.class))
+               .asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+            commit = lookup
+               .findVirtual(eventClass, "commit", MethodType.methodType(void.class))
+               .asType(MethodType.methodType(void.class, Object.class));
+
+            available = true;
+         }
+         catch (ReflectiveOperationException | LinkageError | SecurityException ignored)
+         {
+            // Java 8 without JFR, or the jdk.jfr module is not present
+         }
+
+         AVAILABLE = available;
+         ANNOTATION_ELEMENT = annotationElement;
+         VALUE_DESCRIPTOR = valueDescriptor;
+         CREATE = create;
+         GET_EVENT_TYPE = getEventType;
+         IS_ENABLED = isEnabled;
+         NEW_EVENT = newEvent;
+         BEGIN = begin;
+         SET = set;
+         COMMIT = commit;
+      }
+
+      static Object annotation(String simpleName, Object value) throws ReflectiveOperationException
+      {
+         return ANNOTATION_ELEMENT.newInstance(Class.forName("jdk.jfr." + simpleName), value);
+      }
+   }
+}
@@ -6,6 +6,8 @@ import org.stringtemplate.v4.ST;
 import org.stringtemplate.v4.STGroup;
 import org.stringtemplate.v4.StringRenderer;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -22,6 +24,23 @@ public class Generator4ClassFile extends AbstractGenerator4ClassFile
    // Used by generateMethod to normalize method bodies in preparation for ST's automatic indentation.
    private static final String METHOD_BODY_INDENT = "      ";
 
+   private static final List<String> TEMPLATE_FILE_NAMES = Arrays.asList( //
+      "org/fulib/templates/declarations.stg", //
+      "org/fulib/templates/attributes.pojo.stg", //
+      "org/fulib/templates/attributes.bean.stg", //
+      "org/fulib/templates/attributes.javafx.stg", //
+      "org/fulib/templates/attributes.listener.stg", //
+      "org/fulib/templates/attributes.array.stg", //
+      "org/fulib/templates/associations.pojo.stg", //
+      "org/fulib/templates/associations.bean.stg", //
+      "org/fulib/templates/associations.javafx.stg", //
+      "org/fulib/templates/associations.listener.stg", //
+      "org/fulib/templates/method.stg", //
+      "org/fulib/templates/propertyChangeSupport.stg", //
+      "org/fulib/templates/propertyListeners.stg", //
+      "org/fulib/templates/toString.stg", //
+      "org/fulib/templates/removeYou.stg");
+
    // =============== Properties ===============
 
    /**
@@ -45,6 +64,15 @@ public class Generator4ClassFile extends AbstractGenerator4ClassFile
       return clazz.getModel().getPackageSrcFolder() + "/" + clazz.getName() + ".java";
    }
 
+   /**
+    * @since 1.6
+    */
+   @Override
+   public Collection<String> getTemplateFileNames()
+   {
+      return TEMPLATE_FILE_NAMES;
+   }
+
    /**
     * @since 1.2
     */
@@ -73,7 +101,7 @@ public class Generator4ClassFile extends AbstractGenerator4ClassFile
       final STGroup group = this.getSTGroup("org/fulib/templates/declarations.stg");
       final ST packageDecl = group.getInstanceOf("packageDecl");
       packageDecl.add("packageName", clazz.getModel().getPackageName());
-      fragmentMap.add(PACKAGE, packageDecl.render(), PACKAGE_NEWLINES);
+      fragmentMap.add(PACKAGE, this.render(packageDecl), PACKAGE_NEWLINES);
    }
 
    private void generateImports(Clazz clazz, FileFragmentMap fragmentMap)
@@ -149,7 +177,7 @@ public class Generator4ClassFile extends AbstractGenerator4ClassFile
 
       for (final Attribute attribute : clazz.getAttributes())
       {
-         if (attribute.isCollection())
+         if (attribute.isCollection() && !attribute.isPrimitiveArray())
          {
             this.addCollectionTypeImports(attribute.getCollectionType(), qualifiedNames);
          }
@@ -159,7 +187,13 @@ public class Generator4ClassFile extends AbstractGenerator4ClassFile
    private void addCollectionTypeImports(CollectionType collectionType, Set<String> qualifiedNames)
    {
       qualifiedNames.add(collectionType.getItf().getQualifiedName());
-      qualifiedNames.add(collectionType.getQualifiedImplName());
+
+      final String implName = collectionType.getQualifiedImplName();
+      // generated collection classes like IndexedList live in the model package
+      if (implName.indexOf('.') >= 0)
+      {
+         qualifiedNames.add(implName);
+      }
    }
 
    private void generateClassDecl(Clazz clazz, FileFragmentMap fragmentMap)
@@ -168,7 +202,7 @@ public class Generator4ClassFile extends AbstractGenerator4ClassFile
       final ST classDecl = group.getInstanceOf("classDecl");
       classDecl.add("name", clazz.getName());
       classDecl.add("superClass", clazz.getSuperClass() != null ? clazz.getSuperClass().getName() : null);
-      fragmentMap.add(CLASS + '/' + clazz.getName() + '/' + CLASS_DECL, classDecl.render(), CLASS_NEWLINES);
+      fragmentMap.add(CLASS + '/' + clazz.getName() + '/' + CLASS_DECL, this.render(classDecl), CLASS_NEWLINES);
    }
 
    // --------------- Attributes ---------------
@@ -251,9 +285,27 @@ public class Generator4ClassFile extends AbstractGenerator4ClassFile
 
    private void generatePropertyChangeSupport(Clazz clazz, FileFragmentMap fragmentMap)
    {
-      final STGroup group = this.getSTGroup("org/fulib/templates/propertyChangeSupport.stg");
+      final STGroup beanGroup = this.getSTGroup("org/fulib/templates/propertyChangeSupport.stg");
+      final STGroup listenerGroup = this.getSTGroup("org/fulib/templates/propertyListeners.stg");
       final boolean remove = clazz.getModified() || !needsPropertyChangeSupport(clazz);
-      this.generateFromSignatures(fragmentMap, group, "propertyChangeSignatures", remove, st -> st.add("clazz", clazz));
+
+      // both variants generate the listeners field and firePropertyChange(String,Object,Object),
+      // so the unused variant has to be removed before the other one is added
+      if (!remove && Type.LISTENER.equals(clazz.getPropertyStyle()))
+      {
+         this.generateFromSignatures(fragmentMap, beanGroup, "propertyChangeSignatures", true,
+                                     st -> st.add("clazz", clazz));
+         fragmentMap.remove(IMPORT + "/java.beans.PropertyChangeSupport");
+         this.generateFromSignatures(fragmentMap, listenerGroup, "propertyListenerSignatures", false,
+                                     st -> st.add("clazz", clazz));
+      }
+      else
+      {
+         this.generateFromSignatures(fragmentMap, listenerGroup, "propertyListenerSignatures", true,
+                                     st -> st.add("clazz", clazz));
+         this.generateFromSignatures(fragmentMap, beanGroup, "propertyChangeSignatures", remove,
+                                     st -> st.add("clazz", clazz));
+      }
    }
 
    private static boolean needsPropertyChangeSupport(Clazz clazz)
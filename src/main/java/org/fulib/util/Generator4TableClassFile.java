@@ -7,6 +7,9 @@ import org.fulib.classmodel.FileFragmentMap;
 import org.stringtemplate.v4.ST;
 import org.stringtemplate.v4.STGroup;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -14,6 +17,15 @@ import static org.fulib.classmodel.FileFragmentMap.*;
 
 public class Generator4TableClassFile extends AbstractGenerator4ClassFile
 {
+   // =============== Constants ===============
+
+   private static final List<String> TEMPLATE_FILE_NAMES = Arrays.asList( //
+      "org/fulib/templates/declarations.stg", //
+      "org/fulib/templates/attributes.pojo.stg", //
+      "org/fulib/templates/tables/members.stg", //
+      "org/fulib/templates/tables/attributes.stg", //
+      "org/fulib/templates/tables/associations.stg");
+
    // =============== Properties ===============
 
    /**
@@ -37,6 +49,15 @@ public class Generator4TableClassFile extends AbstractGenerator4ClassFile
       return clazz.getModel().getPackageSrcFolder() + "/tables/" + clazz.getName() + "Table.java";
    }
 
+   /**
+    * @since 1.6
+    */
+   @Override
+   public Collection<String> getTemplateFileNames()
+   {
+      return TEMPLATE_FILE_NAMES;
+   }
+
    /**
     * @since 1.2
     */
@@ -63,7 +84,7 @@ public class Generator4TableClassFile extends AbstractGenerator4ClassFile
 
       final ST packageDecl = group.getInstanceOf("packageDecl");
       packageDecl.add("packageName", clazz.getModel().getPackageName() + ".tables");
-      fragmentMap.add(PACKAGE, packageDecl.render(), PACKAGE_NEWLINES);
+      fragmentMap.add(PACKAGE, this.render(packageDecl), PACKAGE_NEWLINES);
    }
 
    private void generateImports(Clazz clazz, FileFragmentMap fragmentMap)
@@ -84,16 +105,11 @@ public class Generator4TableClassFile extends AbstractGenerator4ClassFile
 
    private void collectImports(Clazz clazz, Set<String> qualifiedNames)
    {
-      qualifiedNames.add("java.util.Arrays");
-      qualifiedNames.add("java.util.List");
-      qualifiedNames.add("java.util.ArrayList");
       qualifiedNames.add("java.util.function.Function");
       qualifiedNames.add("java.util.function.Predicate");
       qualifiedNames.add("java.util.Set");
-      qualifiedNames.add("java.util.HashSet");
       qualifiedNames.add("java.util.LinkedHashSet");
       qualifiedNames.add("java.util.Map");
-      qualifiedNames.add("java.util.LinkedHashMap");
 
       // qualified name of the class
       final String packageName = clazz.getModel().getPackageName();
@@ -121,7 +137,8 @@ public class Generator4TableClassFile extends AbstractGenerator4ClassFile
       final ST classDecl = group.getInstanceOf("classDecl");
       classDecl.add("name", clazz.getName() + "Table");
       classDecl.add("superClass", clazz.getSuperClass() != null ? clazz.getSuperClass().getName() + "Table" : null);
-      fragmentMap.add(CLASS + '/' + clazz.getName() + "Table" + '/' + CLASS_DECL, classDecl.render(), CLASS_NEWLINES);
+      fragmentMap.add(CLASS + '/' + clazz.getName() + "Table" + '/' + CLASS_DECL, this.render(classDecl),
+                      CLASS_NEWLINES);
    }
 
    private void generateStandardAttributes(Clazz clazz, FileFragmentMap fragmentMap)
@@ -131,35 +148,40 @@ public class Generator4TableClassFile extends AbstractGenerator4ClassFile
       // here so the attribute templates have a class name
       final Clazz owner = new Clazz().setName(clazz.getName() + "Table");
 
-      final Attribute table = new Attribute();
-      table.setName("table");
-      table.setType("List<List<Object>>");
-      table.setInitialization("new ArrayList<>()");
-      table.setClazz(owner);
-      this.generateStandardAttribute(fragmentMap, group, table);
+      final Attribute store = new Attribute();
+      store.setName("store");
+      store.setType("ColumnStore");
+      store.setClazz(owner);
+      this.generateStandardAttribute(fragmentMap, group, store, false);
 
       final STGroup attributesGroup = this.getSTGroup("org/fulib/templates/tables/attributes.stg");
       final ST getColumn = attributesGroup.getInstanceOf("getColumn");
-      fragmentMap.add(CLASS + '/' + clazz.getName() + "Table" + '/' + PROPERTY + "/getColumn()", getColumn.render(),
+      fragmentMap.add(CLASS + '/' + clazz.getName() + "Table" + '/' + PROPERTY + "/getColumn()", this.render(getColumn),
                       METHOD_NEWLINES);
 
       final Attribute columnName = new Attribute();
       columnName.setName("columnName");
       columnName.setType("String");
       columnName.setClazz(owner);
-      this.generateStandardAttribute(fragmentMap, group, columnName);
+      this.generateStandardAttribute(fragmentMap, group, columnName, false);
+
+      // tables generated before the column store kept their rows in these attributes
+      final Attribute table = new Attribute();
+      table.setName("table");
+      table.setType("List<List<Object>>");
+      table.setClazz(owner);
+      this.generateStandardAttribute(fragmentMap, group, table, true);
 
       final Attribute columnMap = new Attribute();
       columnMap.setName("columnMap");
       columnMap.setType("Map<String,Integer>");
-      columnMap.setInitialization("new LinkedHashMap<>()");
       columnMap.setClazz(owner);
-      this.generateStandardAttribute(fragmentMap, group, columnMap);
+      this.generateStandardAttribute(fragmentMap, group, columnMap, true);
    }
 
-   private void generateStandardAttribute(FileFragmentMap fragmentMap, STGroup group, Attribute attr)
+   private void generateStandardAttribute(FileFragmentMap fragmentMap, STGroup group, Attribute attr, boolean remove)
    {
-      this.generateFromSignatures(fragmentMap, group, "attrSignatures", false, st -> st.add("attr", attr));
+      this.generateFromSignatures(fragmentMap, group, "attrSignatures", remove, st -> st.add("attr", attr));
    }
 
    private void generateAttributes(Clazz clazz, FileFragmentMap fragmentMap)
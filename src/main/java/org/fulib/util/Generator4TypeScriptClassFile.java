@@ -53,7 +53,7 @@ public class Generator4TypeScriptClassFile extends AbstractGenerator4ClassFile
       STGroup group = this.getSTGroup("org/fulib/templates/typescript/tsClassDecl.stg");
       ST st = group.getInstanceOf("classDecl");
       st.add("name", clazz.getName());
-      String result = st.render();
+      String result = this.render(st);
       fragmentMap.add(FileFragmentMap.CLASS, result, 1);
    }
 
@@ -86,7 +86,7 @@ public class Generator4TypeScriptClassFile extends AbstractGenerator4ClassFile
 
       ST st = group.getInstanceOf("constructor");
       st.add("body", buf.toString());
-      String result = st.render();
+      String result = this.render(st);
       fragmentMap.add(FileFragmentMap.METHOD + ":constructor()", result, 2);
    }
 
@@ -112,7 +112,7 @@ public class Generator4TypeScriptClassFile extends AbstractGenerator4ClassFile
          attrTemplate = group.getInstanceOf("attrDecl");
          attrTemplate.add("type", attrType);
          attrTemplate.add("name", attr.getName());
-         result = attrTemplate.render();
+         result = this.render(attrTemplate);
 
          fragmentMap.add(FileFragmentMap.ATTRIBUTE + ":" + attr.getName(), result, 2, attr.getModified());
       }
@@ -147,7 +147,7 @@ public class Generator4TypeScriptClassFile extends AbstractGenerator4ClassFile
          st = group.getInstanceOf("roleAttrDecl");
          st.add("roleName", role.getName());
          st.add("roleType", roleType);
-         result = st.render();
+         result = this.render(st);
 
          fragmentMap.add(FileFragmentMap.ATTRIBUTE + ":_" + role.getName(), result, 2, role.getModified());
 
@@ -155,7 +155,7 @@ public class Generator4TypeScriptClassFile extends AbstractGenerator4ClassFile
 
          st.add("roleName", role.getName());
          st.add("roleType", roleType);
-         result = st.render();
+         result = this.render(st);
 
          fragmentMap.add(FileFragmentMap.METHOD + ":get " + role.getName() + "()", result, 2, role.getModified());
 
@@ -167,7 +167,7 @@ public class Generator4TypeScriptClassFile extends AbstractGenerator4ClassFile
          st.add("otherRoleName", role.getOther().getName());
          st.add("otherToMany", role.getOther().getCardinality() != Type.ONE);
          st.add("roleType", roleType);
-         result = st.render();
+         result = this.render(st);
 
          String signature = "set " + role.getName() + "(" + role.getOther().getClazz().getName() + ")";
          if (role.getCardinality() != Type.ONE)
@@ -188,7 +188,7 @@ public class Generator4TypeScriptClassFile extends AbstractGenerator4ClassFile
             st.add("otherRoleName", role.getOther().getName());
             st.add("otherToMany", role.getOther().getCardinality() != Type.ONE);
             st.add("roleType", roleType);
-            result = st.render();
+            result = this.render(st);
 
             fragmentMap.add(FileFragmentMap.METHOD + ":without" + StrUtil.cap(role.getName()) + "(any[])", result, 3,
                             role.getModified());
@@ -221,7 +221,7 @@ public class Generator4TypeScriptClassFile extends AbstractGenerator4ClassFile
 
       ST st = group.getInstanceOf("removeYou");
       st.add("body", buf.toString());
-      String result = st.render();
+      String result = this.render(st);
       fragmentMap.add(FileFragmentMap.METHOD + ":removeYou()", result, 2);
    }
 }
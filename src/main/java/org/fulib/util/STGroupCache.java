@@ -0,0 +1,134 @@
+package org.fulib.util;
+
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.STGroupFile;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A process-wide cache of compiled {@link STGroup}s, shared by all class file generators.
+ * Entries are keyed by the template file and the custom template file, if any.
+ * <p>
+ * Groups are loaded and compiled completely before they are published,
+ * so concurrent generators never trigger lazy loading and only read the compiled templates.
+ * Each template file is thus compiled once per process, not once per {@code generate} call.
+ * <p>
+ * Templates that change at runtime, e.g. custom template files edited while a build daemon is running,
+ * must be {@linkplain #invalidate(String) invalidated} explicitly.
+ *
+ * @since 1.6
+ */
+public class STGroupCache
+{
+   // =============== Static Fields ===============
+
+   private static final Map<Key, STGroup> GROUPS = new ConcurrentHashMap<>();
+
+   // =============== Static Methods ===============
+
+   /**
+    * Returns the compiled group for the template file, loading it if needed.
+    * If a custom template file is given, its templates take precedence over those of the template file.
+    *
+    * @param templateFile
+    *    the template file, usually a class path resource like {@code org/fulib/templates/method.stg}
+    * @param customTemplatesFile
+    *    the custom template file, or {@code null}
+    *
+    * @return the compiled group
+    */
+   public static STGroup getSTGroup(String templateFile, String customTemplatesFile)
+   {
+      return GROUPS.computeIfAbsent(new Key(templateFile, customTemplatesFile), STGroupCache::load);
+   }
+
+   /**
+    * Removes all cached groups.
+    */
+   public static void invalidate()
+   {
+      GROUPS.clear();
+   }
+
+   /**
+    * Removes all cached groups that use the given file, either as the template file or as the custom template file.
+    *
+    * @param fileName
+    *    the template file or custom template file
+    */
+   public static void invalidate(String fileName)
+   {
+      GROUPS.keySet().removeIf(key -> key.uses(fileName));
+   }
+
+   /**
+    * @return the number of cached groups
+    */
+   public static int size()
+   {
+      return GROUPS.size();
+   }
+
+   private static STGroup load(Key key)
+   {
+      STGroup group;
+      try
+      {
+         group = new STGroupFile(key.customTemplatesFile);
+         STGroup origGroup = new STGroupFile(key.templateFile);
+         origGroup.load();
+         group.importTemplates(origGroup);
+      }
+      catch (Exception e)
+      {
+         group = new STGroupFile(key.templateFile);
+      }
+      group.registerRenderer(String.class, new FulibStringRenderer());
+      group.load();
+      return group;
+   }
+
+   // =============== Classes ===============
+
+   private static class Key
+   {
+      final String templateFile;
+      final String customTemplatesFile;
+
+      Key(String templateFile, String customTemplatesFile)
+      {
+         this.templateFile = templateFile;
+         this.customTemplatesFile = customTemplatesFile;
+      }
+
+      boolean uses(String fileName)
+      {
+         return fileName.equals(this.templateFile) || fileName.equals(this.customTemplatesFile);
+      }
+
+      @Override
+      public boolean equals(Object o)
+      {
+         if (this == o)
+         {
+            return true;
+         }
+         if (!(o instanceof Key))
+         {
+            return false;
+         }
+
+         final Key that = (Key) o;
+         return this.templateFile.equals(that.templateFile) && Objects.equals(this.customTemplatesFile,
+                                                                              that.customTemplatesFile);
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return 31 * this.templateFile.hashCode() + Objects.hashCode(this.customTemplatesFile);
+      }
+   }
+}
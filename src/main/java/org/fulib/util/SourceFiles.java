@@ -0,0 +1,259 @@
+package org.fulib.util;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Utilities for writing generated source files.
+ *
+ * @since 1.6
+ */
+public class SourceFiles
+{
+   // =============== Constants ===============
+
+   private static final int BUFFER_SIZE = 8192;
+
+   // larger encode buffers are not kept, so a single huge file does not pin its memory
+   private static final int MAX_CACHED_BUFFER_SIZE = 1 << 20;
+
+   private static final String TEMP_PREFIX = ".";
+   private static final String TEMP_SUFFIX = ".tmp";
+
+   // =============== Static Fields ===============
+
+   private static final ThreadLocal<CharsetEncoder> ENCODER = ThreadLocal.withInitial(
+      () -> StandardCharsets.UTF_8
+         .newEncoder()
+         .onMalformedInput(CodingErrorAction.REPLACE)
+         .onUnmappableCharacter(CodingErrorAction.REPLACE));
+
+   private static final ThreadLocal<ByteBuffer> ENCODE_BUFFER = new ThreadLocal<>();
+
+   private static final ThreadLocal<ByteBuffer> READ_BUFFER = ThreadLocal.withInitial(
+      () -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+   // =============== Static Methods ===============
+
+   /**
+    * Writes the content to the file, encoded as UTF-8.
+    * Parent directories are created if needed.
+    * The text is encoded into a reusable buffer and written through a {@link FileChannel},
+    * without intermediate byte arrays.
+    *
+    * @param path
+    *    the file
+    * @param content
+    *    the file content
+    * @param atomic
+    *    whether to write a temporary file first and rename it to the target,
+    *    so that readers never see a partially written file
+    *
+    * @throws IOException
+    *    if writing the file fails
+    */
+   public static void write(Path path, CharSequence content, boolean atomic) throws IOException
+   {
+      write(path, encode(content), atomic);
+   }
+
+   /**
+    * Like {@link #write(Path, CharSequence, boolean)}, but leaves the file untouched if it already has exactly that
+    * content.
+    * Leaving unchanged files untouched keeps their modification time,
+    * so incremental compilers and IDE indexes do not see them as changed.
+    *
+    * @param path
+    *    the file
+    * @param content
+    *    the file content
+    * @param atomic
+    *    whether to write a temporary file first and rename it to the target
+    *
+    * @return {@code true} if the file was written, {@code false} if it was already up to date
+    *
+    * @throws IOException
+    *    if reading or writing the file fails
+    */
+   public static boolean writeIfChanged(Path path, CharSequence content, boolean atomic) throws IOException
+   {
+      final ByteBuffer bytes = encode(content);
+      if (hasContent(path, bytes))
+      {
+         return false;
+      }
+
+      write(path, bytes, atomic);
+      return true;
+   }
+
+   /**
+    * Checks whether the file looks like one of the temporary files that atomic writes create next to the target
+    * file. They only exist while the file is written.
+    *
+    * @param path
+    *    the file
+    *
+    * @return {@code true} if the file name has the form of such a temporary file
+    */
+   public static boolean isTemporaryFile(Path path)
+   {
+      final Path fileName = path.getFileName();
+      if (fileName == null)
+      {
+         return false;
+      }
+
+      final String name = fileName.toString();
+      return name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX);
+   }
+
+   // files with a different size are rejected without reading them;
+   // otherwise the file is compared chunk by chunk and reading stops at the first difference
+   private static boolean hasContent(Path path, ByteBuffer content) throws IOException
+   {
+      if (!Files.isRegularFile(path) || Files.size(path) != content.remaining())
+      {
+         return false;
+      }
+
+      // casts to Buffer keep the byte code compatible with JDK 8
+      final ByteBuffer expected = content.duplicate();
+      final ByteBuffer buffer = READ_BUFFER.get();
+      try (final FileChannel channel = FileChannel.open(path, READ))
+      {
+         while (true)
+         {
+            ((Buffer) buffer).clear();
+            final int read = channel.read(buffer);
+            if (read < 0)
+            {
+               return !expected.hasRemaining();
+            }
+            if (read > expected.remaining())
+            {
+               // file grew since we checked the size
+               return false;
+            }
+
+            ((Buffer) buffer).flip();
+            final ByteBuffer chunk = expected.slice();
+            ((Buffer) chunk).limit(read);
+            if (!chunk.equals(buffer))
+            {
+               return false;
+            }
+            ((Buffer) expected).position(expected.position() + read);
+         }
+      }
+   }
+
+   private static void write(Path path, ByteBuffer content, boolean atomic) throws IOException
+   {
+      final Path parent = path.toAbsolutePath().getParent();
+      if (parent != null)
+      {
+         Files.createDirectories(parent);
+      }
+
+      if (!atomic)
+      {
+         writeChannel(path, content);
+         return;
+      }
+
+      // the temporary file must be in the same directory for the rename to be atomic.
+      // not using Files.createTempFile, because that restricts the permissions of the file
+      final String tempName = TEMP_PREFIX + path.getFileName() + "." //
+                              + Long.toHexString(ThreadLocalRandom.current().nextLong()) + TEMP_SUFFIX;
+      final Path temp = path.resolveSibling(tempName);
+      try
+      {
+         writeChannel(temp, content);
+         try
+         {
+            Files.move(temp, path, REPLACE_EXISTING, ATOMIC_MOVE);
+         }
+         catch (AtomicMoveNotSupportedException e)
+         {
+            Files.move(temp, path, REPLACE_EXISTING);
+         }
+      }
+      finally
+      {
+         Files.deleteIfExists(temp);
+      }
+   }
+
+   private static void writeChannel(Path path, ByteBuffer content) throws IOException
+   {
+      final ByteBuffer source = content.duplicate();
+      try (final FileChannel channel = FileChannel.open(path, CREATE, WRITE, TRUNCATE_EXISTING))
+      {
+         while (source.hasRemaining())
+         {
+            channel.write(source);
+         }
+      }
+   }
+
+   /**
+    * Encodes the text as UTF-8 into a buffer that is reused by the calling thread.
+    * The result is only valid until the next call on the same thread.
+    */
+   private static ByteBuffer encode(CharSequence content) throws IOException
+   {
+      final CharsetEncoder encoder = ENCODER.get().reset();
+      final long maxLength = (long) Math.ceil(content.length() * (double) encoder.maxBytesPerChar());
+      final int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(maxLength, BUFFER_SIZE));
+
+      ByteBuffer buffer = ENCODE_BUFFER.get();
+      if (buffer == null || buffer.capacity() < capacity)
+      {
+         if (capacity <= MAX_CACHED_BUFFER_SIZE)
+         {
+            // grow geometrically, so files of slowly increasing size do not reallocate every time
+            final int cachedCapacity = buffer == null ? capacity : Math.min(MAX_CACHED_BUFFER_SIZE,
+                                                                            Math.max(capacity, buffer.capacity() * 2));
+            buffer = ByteBuffer.allocateDirect(cachedCapacity);
+            ENCODE_BUFFER.set(buffer);
+         }
+         else
+         {
+            buffer = ByteBuffer.allocate(capacity);
+         }
+      }
+      else
+      {
+         ((Buffer) buffer).clear();
+      }
+
+      CoderResult result = encoder.encode(CharBuffer.wrap(content), buffer, true);
+      if (!result.isError() && !result.isOverflow())
+      {
+         result = encoder.flush(buffer);
+      }
+      if (result.isError() || result.isOverflow())
+      {
+         result.throwException();
+      }
+
+      ((Buffer) buffer).flip();
+      return buffer;
+   }
+}
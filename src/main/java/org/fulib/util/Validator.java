@@ -1,5 +1,7 @@
 package org.fulib.util;
 
+import org.fulib.classmodel.CollectionType;
+
 import javax.lang.model.SourceVersion;
 
 /**
@@ -109,4 +111,128 @@ public class Validator
       return parameterCount == 0 && (hasPrefixVerb(methodName, "get") || hasPrefixVerb(methodName, "is")
                                      || hasPrefixVerb(methodName, "_init") || methodName.endsWith("Property"));
    }
+
+   /**
+    * Checks that the collection type can be used for a multi-valued attribute.
+    * {@link CollectionType#IndexedList} compares elements by identity and rejects duplicates,
+    * so it is only supported for associations.
+    *
+    * @param name
+    *    the attribute name, qualified with the class name; used in the error message
+    * @param collectionType
+    *    the collection type, or {@code null} for a single-valued attribute
+    *
+    * @throws IllegalArgumentException
+    *    if the collection type cannot be used for attributes
+    * @since 1.6
+    */
+   public static void checkAttributeCollectionType(String name, CollectionType collectionType)
+   {
+      if (collectionType == null)
+      {
+         return;
+      }
+      if (isSameCollectionType(collectionType, CollectionType.IndexedList))
+      {
+         throw new IllegalArgumentException(
+            "attribute '" + name + "' cannot use IndexedList, it is only supported for associations");
+      }
+   }
+
+   /**
+    * Checks that a multi-valued attribute stored in a {@link CollectionType#PrimitiveArray} is valid.
+    * The element type must be primitive, and there is no initial value, because the array starts empty.
+    * Does nothing for other collection types.
+    *
+    * @param name
+    *    the attribute name, qualified with the class name; used in the error message
+    * @param type
+    *    the element type, or {@code null} if not yet known
+    * @param collectionType
+    *    the collection type, or {@code null} for a single-valued attribute
+    * @param initialization
+    *    the initial value, or {@code null}
+    *
+    * @throws IllegalArgumentException
+    *    if the collection type is {@link CollectionType#PrimitiveArray} and the type is not primitive
+    *    or there is an initial value
+    * @since 1.6
+    */
+   public static void checkPrimitiveArrayAttribute(String name, String type, CollectionType collectionType,
+      String initialization)
+   {
+      if (collectionType == null || !isSameCollectionType(collectionType, CollectionType.PrimitiveArray))
+      {
+         return;
+      }
+      if (type != null && !isPrimitive(type))
+      {
+         throw new IllegalArgumentException(
+            "attribute '" + name + "' cannot use PrimitiveArray, its type '" + type + "' is not primitive");
+      }
+      if (initialization != null)
+      {
+         throw new IllegalArgumentException(
+            "attribute '" + name + "' cannot use PrimitiveArray with the initial value '" + initialization + "'");
+      }
+   }
+
+   /**
+    * Checks that the collection type can be used for a to-many role.
+    * {@link CollectionType#PrimitiveArray} can only hold primitive values, so it is only supported for attributes.
+    *
+    * @param name
+    *    the role name, qualified with the class name; used in the error message
+    * @param collectionType
+    *    the collection type, or {@code null} for a to-one role
+    *
+    * @throws IllegalArgumentException
+    *    if the collection type cannot be used for roles
+    * @since 1.6
+    */
+   public static void checkRoleCollectionType(String name, CollectionType collectionType)
+   {
+      if (collectionType != null && isSameCollectionType(collectionType, CollectionType.PrimitiveArray))
+      {
+         throw new IllegalArgumentException(
+            "role '" + name + "' cannot use PrimitiveArray, it is only supported for attributes");
+      }
+   }
+
+   private static boolean isPrimitive(String type)
+   {
+      switch (type)
+      {
+      case "boolean":
+      case "byte":
+      case "short":
+      case "char":
+      case "int":
+      case "long":
+      case "float":
+      case "double":
+         return true;
+      default:
+         return false;
+      }
+   }
+
+   /**
+    * Checks whether two collection types denote the same implementation.
+    * Models that were deserialized or built with {@link CollectionType#CollectionType()} have their own
+    * {@link CollectionType} instances, so they are compared by their implementation template instead of identity.
+    *
+    * @param a
+    *    the first collection type
+    * @param b
+    *    the second collection type
+    *
+    * @return {@code true} if both collection types have the same implementation template
+    *
+    * @since 1.6
+    */
+   public static boolean isSameCollectionType(CollectionType a, CollectionType b)
+   {
+      return a == b || a.getImplTemplate() != null && a.getImplTemplate().equals(b.getImplTemplate());
+   }
 }
@@ -122,4 +122,42 @@ class FMethodTest
                                           + "<unknown>:1:5: syntax: extraneous input '(' expecting IDENTIFIER\n"
                                           + "<unknown>:1:7: syntax: mismatched input ',' expecting {'@', '[', IDENTIFIER}\n"));
    }
+
+   @Test
+   void caches()
+   {
+      final Clazz clazz = new Clazz().setName("Foo");
+      final FMethod method = new FMethod().setClazz(clazz);
+      method.setDeclaration("public int foo(String s)");
+      assertThat(method.getDeclaration(), equalTo("public int foo(String s)"));
+      assertThat(method.getSignature(), equalTo("class/Foo/method/foo(String)"));
+
+      method.setName("bar");
+      method.setReturnType("long");
+      assertThat(method.getDeclaration(), equalTo("public long bar(String s)"));
+      assertThat(method.getSignature(), equalTo("class/Foo/method/bar(String)"));
+
+      method.setParamsString("int i, String... rest");
+      assertThat(method.getDeclaration(), equalTo("public long bar(int i, String... rest)"));
+      assertThat(method.getSignature(), equalTo("class/Foo/method/bar(int,String...)"));
+
+      // direct modification of the mutable maps
+      method.getParams().remove("rest");
+      assertThat(method.getParamsString(), equalTo("int i"));
+      assertThat(method.getSignature(), equalTo("class/Foo/method/bar(int)"));
+      method.getTypeParams().put("T", null);
+      assertThat(method.getDeclaration(), equalTo("public <T> long bar(int i)"));
+
+      clazz.setName("Baz");
+      assertThat(method.getSignature(), equalTo("class/Baz/method/bar(int)"));
+
+      // shared parse results must not leak between methods
+      final FMethod other = new FMethod().setClazz(clazz);
+      other.setDeclaration("public int foo(String s)");
+      other.getParams().put("t", "int");
+      final FMethod third = new FMethod().setClazz(clazz);
+      third.setDeclaration("public int foo(String s)");
+      assertThat(third.getParams(), aMapWithSize(1));
+      assertThat(third.getDeclaration(), equalTo("public int foo(String s)"));
+   }
 }
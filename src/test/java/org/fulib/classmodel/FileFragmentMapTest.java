@@ -6,8 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -176,4 +183,123 @@ class FileFragmentMapTest
       final FileFragmentMap fragmentMap = FragmentMapBuilder.parse("NotClass.java", CharStreams.fromString(body));
       assertThat(fragmentMap.isClassBodyEmpty(), is(false));
    }
+
+   @Test
+   void writeFileIfChanged() throws IOException
+   {
+      final Path path = Paths.get("tmp/write-if-changed/Example.java");
+      Files.deleteIfExists(path);
+
+      // language=JAVA
+      final String example = "class Example {\n" + "   int i;\n" + "}\n";
+      final FileFragmentMap map = FragmentMapBuilder.parse(path.toString(), CharStreams.fromString(example));
+
+      assertThat("new file is written", map.writeFileIfChanged(), is(true));
+      assertThat(new String(Files.readAllBytes(path), StandardCharsets.UTF_8), equalTo(example));
+
+      final FileTime oldTime = FileTime.fromMillis(0);
+      Files.setLastModifiedTime(path, oldTime);
+
+      assertThat("unchanged file is skipped", map.writeFileIfChanged(), is(false));
+      assertThat(Files.getLastModifiedTime(path), equalTo(oldTime));
+
+      map.getFragment("class/Example/attribute/i").setText("long i;");
+
+      assertThat("changed file is written", map.writeFileIfChanged(), is(true));
+      assertThat(new String(Files.readAllBytes(path), StandardCharsets.UTF_8), containsString("long i;"));
+
+      // same length, different content
+      Files.write(path, map.toString().replace("long", "lonG").getBytes(StandardCharsets.UTF_8));
+      assertThat("file with same size but different content is written", map.writeFileIfChanged(), is(true));
+      assertThat(new String(Files.readAllBytes(path), StandardCharsets.UTF_8), containsString("long i;"));
+   }
+
+   @Test
+   void writeFileAtomic() throws IOException
+   {
+      final Path folder = Paths.get("tmp/write-atomic");
+      final Path path = folder.resolve("Example.java");
+      Files.deleteIfExists(path);
+
+      // language=JAVA
+      final String example = "class Example {\n" + "   String s = \"\u00e4\u20ac\";\n" + "}\n";
+      final FileFragmentMap map = FragmentMapBuilder.parse(path.toString(), CharStreams.fromString(example));
+      assertThat(map.toString(), equalTo(example));
+
+      map.writeFile(true);
+      assertThat(new String(Files.readAllBytes(path), StandardCharsets.UTF_8), equalTo(example));
+
+      map.getFragment("class/Example/attribute/s").setText("String s = null;");
+      assertThat(map.writeFileIfChanged(true), is(true));
+      assertThat(map.writeFileIfChanged(true), is(false));
+      assertThat(new String(Files.readAllBytes(path), StandardCharsets.UTF_8), equalTo(map.toString()));
+
+      // no temporary files are left behind
+      try (final Stream<Path> files = Files.list(folder))
+      {
+         assertThat(files.map(file -> file.getFileName().toString()).collect(Collectors.toList()),
+                    contains("Example.java"));
+      }
+   }
+
+   @Test
+   void getFragmentWithDuplicateKeys()
+   {
+      final FileFragmentMap map = new FileFragmentMap("Example.java");
+      final CodeFragment first = new CodeFragment().setKey("class/Example/method/foo()").setText("void foo() {}");
+      final CodeFragment between = new CodeFragment().setKey("class/Example/attribute/i").setText("int i;");
+      final CodeFragment second = new CodeFragment().setKey("class/Example/method/foo()").setText("void foo() {  }");
+
+      // appending creates a second class/Example/method subtree
+      map.append(first);
+      map.append(between);
+      map.append(second);
+
+      assertThat(map.getFragment("class/Example/method/foo()"), sameInstance(first));
+      assertThat(map.getFragment("class/Example/attribute/i"), sameInstance(between));
+
+      map.remove(first);
+      assertThat(map.getFragment("class/Example/method/foo()"), sameInstance(second));
+
+      map.remove(second);
+      assertThat(map.getFragment("class/Example/method/foo()"), nullValue());
+
+      // removing and adding again via the smart API
+      final CodeFragment added = map.add("class/Example/method/foo()", "void foo() { }", 2);
+      assertThat(map.getFragment("class/Example/method/foo()"), sameInstance(added));
+      assertThat(map.remove("class/Example/method/foo()"), sameInstance(added));
+      assertThat(map.getFragment("class/Example/method/foo()"), nullValue());
+      assertThat(map.getFragment("class/Example/method/foo()#gap-before"), nullValue());
+   }
+
+   @Test
+   void childIndex()
+   {
+      final CompoundFragment parent = new CompoundFragment().setKey("class");
+      final CodeFragment a = new CodeFragment().setKey("class/a");
+      final CodeFragment b = new CodeFragment().setKey("class/b");
+      final CodeFragment otherA = new CodeFragment().setKey("class/a");
+
+      parent.withChildren(a, b);
+      parent.withChildren(0, otherA);
+
+      assertThat(parent.getChildWithKey("class/a"), sameInstance(otherA));
+      assertThat(parent.getChildrenWithKey("class/a"), contains(otherA, a));
+      assertThat(parent.getChild("b"), sameInstance(b));
+
+      // changing the key of a child updates the index
+      b.setKey("class/c");
+      assertThat(parent.getChildWithKey("class/b"), nullValue());
+      assertThat(parent.getChildWithKey("class/c"), sameInstance(b));
+
+      // moving a child to another parent updates both indices
+      final CompoundFragment other = new CompoundFragment().setKey("class");
+      otherA.setParent(other);
+      assertThat(parent.getChildWithKey("class/a"), sameInstance(a));
+      assertThat(other.getChildWithKey("class/a"), sameInstance(otherA));
+
+      // adding the same child twice has no effect
+      parent.withChildren(a);
+      assertThat(parent.getChildren(), contains(a, b));
+   }
 }
@@ -0,0 +1,113 @@
+package org.fulib.classmodel;
+
+import org.fulib.builder.ClassModelManager;
+import org.fulib.builder.Type;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class NameIndexTest
+{
+   @Test
+   void getClazz()
+   {
+      final ClassModel model = new ClassModel();
+      final Clazz foo = new Clazz().setName("Foo").setModel(model);
+      final Clazz bar = new Clazz().setName("Bar");
+      model.withClasses(bar);
+
+      assertThat(model.getClazz("Foo"), sameInstance(foo));
+      assertThat(model.getClazz("Bar"), sameInstance(bar));
+      assertThat(model.getClazz("Baz"), nullValue());
+
+      // adding twice is a no-op
+      model.withClasses(foo);
+      assertThat(model.getClasses(), contains(foo, bar));
+
+      // rename
+      bar.setName("Baz");
+      assertThat(model.getClazz("Bar"), nullValue());
+      assertThat(model.getClazz("Baz"), sameInstance(bar));
+
+      // duplicate names resolve to the first class in list order
+      final Clazz other = new Clazz().setName("Other").setModel(model);
+      other.setName("Foo");
+      assertThat(model.getClazz("Foo"), sameInstance(foo));
+      foo.setName("Foo2");
+      assertThat(model.getClazz("Foo"), sameInstance(other));
+      foo.setName("Foo");
+      assertThat(model.getClazz("Foo"), sameInstance(foo));
+
+      // removal
+      foo.setModel(null);
+      assertThat(model.getClazz("Foo"), sameInstance(other));
+      model.withoutClasses(other);
+      assertThat(model.getClazz("Foo"), nullValue());
+      assertThat(model.getClasses(), contains(bar));
+
+      // renaming a detached class does not affect the model
+      foo.setName("Baz");
+      assertThat(model.getClazz("Baz"), sameInstance(bar));
+   }
+
+   @Test
+   void getAttributeAndRole()
+   {
+      final Clazz clazz = new Clazz().setName("Foo");
+      final Attribute name = new Attribute().setName("name").setClazz(clazz);
+      final AssocRole parent = new AssocRole().setName("parent");
+      clazz.withRoles(parent);
+
+      assertThat(clazz.getAttribute("name"), sameInstance(name));
+      assertThat(clazz.getRole("parent"), sameInstance(parent));
+      assertThat(clazz.getRole(null), nullValue());
+
+      name.setName("title");
+      parent.setName("owner");
+      assertThat(clazz.getAttribute("name"), nullValue());
+      assertThat(clazz.getAttribute("title"), sameInstance(name));
+      assertThat(clazz.getRole("parent"), nullValue());
+      assertThat(clazz.getRole("owner"), sameInstance(parent));
+
+      clazz.withoutAttributes(name);
+      parent.setClazz(null);
+      assertThat(clazz.getAttribute("title"), nullValue());
+      assertThat(clazz.getRole("owner"), nullValue());
+      assertThat(clazz.getAttributes(), empty());
+      assertThat(clazz.getRoles(), empty());
+   }
+
+   @Test
+   void getMethod()
+   {
+      final ClassModelManager mm = new ClassModelManager();
+      final Clazz clazz = mm.haveClass("Foo");
+      final FMethod noArgs = mm.haveMethod(clazz, "public void foo()", "");
+      final FMethod oneArg = mm.haveMethod(clazz, "public void foo(int i)", "");
+      final FMethod annotated = mm.haveMethod(clazz, "@SuppressWarnings(\"unchecked\") public <T> T bar(Object o)",
+                                              "return (T) o;");
+
+      assertThat(clazz.getMethodsByName("foo"), contains(noArgs, oneArg));
+      assertThat(mm.getMethod(clazz, "public void foo()"), sameInstance(noArgs));
+      assertThat(mm.getMethod(clazz, "public void foo(int i)"), sameInstance(oneArg));
+      assertThat(mm.getMethod(clazz, annotated.getDeclaration()), sameInstance(annotated));
+      assertThat(mm.getMethod(clazz, "public void foo(long l)"), nullValue());
+      assertThat(mm.getMethod(clazz, "public void baz()"), nullValue());
+      assertThat(mm.getMethod(clazz, "invalid"), nullValue());
+
+      // existing methods are updated, not duplicated
+      assertThat(mm.haveMethod(clazz, "public void foo()", "return;"), sameInstance(noArgs));
+      assertThat(clazz.getMethods(), hasSize(3));
+
+      noArgs.setName("baz");
+      assertThat(clazz.getMethodsByName("foo"), contains(oneArg));
+      assertThat(mm.getMethod(clazz, "public void baz()"), sameInstance(noArgs));
+
+      oneArg.removeYou();
+      assertThat(clazz.getMethodsByName("foo"), empty());
+      assertThat(mm.haveClass("Foo"), sameInstance(clazz));
+      assertThat(mm.getClassModel().getClazz("Foo"), sameInstance(clazz));
+      assertThat(mm.haveAttribute(clazz, "x", Type.INT), sameInstance(clazz.getAttribute("x")));
+   }
+}
@@ -3,6 +3,20 @@ package org.fulib.generator;
 import org.fulib.builder.ClassModelBuilder;
 import org.fulib.builder.Type;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeSupport;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.beans.HasPropertyWithValue.hasProperty;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+
 public class BeanAssociationTest extends AssociationTest
 {
    @Override
@@ -16,4 +30,68 @@ public class BeanAssociationTest extends AssociationTest
    {
       mb.setDefaultPropertyStyle(Type.BEAN);
    }
+
+   @Override
+   protected void runDataTests(ClassLoader classLoader, String packageName) throws Exception
+   {
+      super.runDataTests(classLoader, packageName);
+      this.runBulkEventTests(classLoader, packageName);
+   }
+
+   protected void runBulkEventTests(ClassLoader classLoader, String packageName) throws Exception
+   {
+      final Class<?> uniClass = Class.forName(packageName + ".University", true, classLoader);
+      final Class<?> studClass = Class.forName(packageName + ".Student", true, classLoader);
+
+      final Object uni = uniClass.newInstance();
+      final Object alice = studClass.newInstance();
+      final Object bob = studClass.newInstance();
+      final Object carol = studClass.newInstance();
+
+      final List<PropertyChangeEvent> events = new ArrayList<>();
+      ((PropertyChangeSupport) uniClass.getMethod("listeners").invoke(uni)).addPropertyChangeListener(events::add);
+
+      // bulk operations fire one event per added or removed element, like the single-item methods
+      final Method withStudents = uniClass.getMethod("withStudents", Collection.class);
+      withStudents.invoke(uni, Arrays.asList(alice, bob, alice, carol));
+      assertThat(uni, hasProperty("students", contains(alice, bob, carol)));
+      assertThat(carol, hasProperty("uni", sameInstance(uni)));
+      assertThat(events.size(), is(3));
+      for (int i = 0; i < 3; i++)
+      {
+         assertThat(events.get(i).getPropertyName(), is("students"));
+         assertThat(events.get(i).getOldValue(), nullValue());
+      }
+      assertThat(events.get(0).getNewValue(), sameInstance(alice));
+      assertThat(events.get(1).getNewValue(), sameInstance(bob));
+      assertThat(events.get(2).getNewValue(), sameInstance(carol));
+
+      // no event if nothing changed
+      withStudents.invoke(uni, Arrays.asList(bob, carol));
+      assertThat(events.size(), is(3));
+
+      final Method withoutStudents = uniClass.getMethod("withoutStudents", Collection.class);
+      withoutStudents.invoke(uni, Arrays.asList(carol, alice));
+      assertThat(uni, hasProperty("students", contains(bob)));
+      assertThat(alice, hasProperty("uni", nullValue()));
+      assertThat(carol, hasProperty("uni", nullValue()));
+      assertThat(events.size(), is(5));
+      assertThat(events.get(3).getOldValue(), sameInstance(alice));
+      assertThat(events.get(3).getNewValue(), nullValue());
+      assertThat(events.get(4).getOldValue(), sameInstance(carol));
+      assertThat(events.get(4).getNewValue(), nullValue());
+
+      // a bulk call with one element fires the same event as the single-item method
+      withoutStudents.invoke(uni, Collections.singletonList(bob));
+      assertThat(bob, hasProperty("uni", nullValue()));
+      assertThat(events.size(), is(6));
+      assertThat(events.get(5).getOldValue(), sameInstance(bob));
+      assertThat(events.get(5).getNewValue(), nullValue());
+
+      withStudents.invoke(uni, Collections.singletonList(alice));
+      assertThat(alice, hasProperty("uni", sameInstance(uni)));
+      assertThat(events.size(), is(7));
+      assertThat(events.get(6).getOldValue(), nullValue());
+      assertThat(events.get(6).getNewValue(), sameInstance(alice));
+   }
 }
@@ -0,0 +1,60 @@
+package org.fulib.generator;
+
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.Type;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeSupport;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BeanPrimitiveArrayAttributeTest extends PrimitiveArrayAttributeTest
+{
+   @Override
+   protected String getTargetFolder()
+   {
+      return "tmp/bean/primitive-arrays";
+   }
+
+   @Override
+   protected void configureModel(ClassModelBuilder mb)
+   {
+      mb.setDefaultPropertyStyle(Type.BEAN);
+   }
+
+   @Override
+   protected void runDataTests(ClassLoader classLoader, String packageName) throws Exception
+   {
+      super.runDataTests(classLoader, packageName);
+
+      final Class<?> sensorClass = Class.forName(packageName + ".Sensor", true, classLoader);
+      final Object sensor = sensorClass.newInstance();
+
+      final List<PropertyChangeEvent> events = new ArrayList<>();
+      ((PropertyChangeSupport) sensorClass.getMethod("listeners").invoke(sensor)).addPropertyChangeListener(events::add);
+
+      // bulk operations fire one event with the whole array
+      sensorClass.getMethod("withReadings", int[].class).invoke(sensor, new int[] { 1, 2, 3 });
+      assertThat(events.size(), is(1));
+      assertThat(events.get(0).getPropertyName(), is("readings"));
+      assertThat(events.get(0).getOldValue(), nullValue());
+      assertThat(events.get(0).getNewValue(), is(new int[] { 1, 2, 3 }));
+
+      sensorClass.getMethod("withReadings", int.class).invoke(sensor, 4);
+      assertThat(events.size(), is(2));
+      assertThat(events.get(1).getNewValue(), is(4));
+
+      // no event if nothing changed
+      sensorClass.getMethod("withoutReadings", int.class).invoke(sensor, 7);
+      sensorClass.getMethod("withoutReadings", int[].class).invoke(sensor, new int[] { 7, 8 });
+      assertThat(events.size(), is(2));
+
+      sensorClass.getMethod("withoutReadings", int[].class).invoke(sensor, new int[] { 1, 3 });
+      assertThat(events.size(), is(3));
+      assertThat(events.get(2).getOldValue(), is(new int[] { 1, 3 }));
+      assertThat(events.get(2).getNewValue(), nullValue());
+   }
+}
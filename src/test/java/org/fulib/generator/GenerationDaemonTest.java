@@ -0,0 +1,248 @@
+package org.fulib.generator;
+
+import org.fulib.Fulib;
+import org.fulib.GenerationDaemon;
+import org.fulib.GenerationMetrics;
+import org.fulib.Generator;
+import org.fulib.MetricsListener;
+import org.fulib.Tools;
+import org.fulib.builder.ClassBuilder;
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.Type;
+import org.fulib.classmodel.ClassModel;
+import org.fulib.util.STGroupCache;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class GenerationDaemonTest
+{
+   private static final String TARGET_FOLDER = "tmp/daemon";
+   private static final String SRC_FOLDER = TARGET_FOLDER + "/src";
+   private static final String TEMPLATES_FOLDER = TARGET_FOLDER + "/templates";
+
+   // how long to wait for the watcher to report a generation before failing.
+   // the polling watch service used on macOS notices changes only every few seconds
+   private static final long TIMEOUT_SECONDS = 60;
+
+   private static ClassModel buildModel()
+   {
+      final ClassModelBuilder mb = Fulib.classModelBuilder("org.fulib.daemon", SRC_FOLDER);
+      final ClassBuilder uni = mb.buildClass("University").buildAttribute("name", Type.STRING);
+      final ClassBuilder student = mb.buildClass("Student").buildAttribute("name", Type.STRING);
+      uni.buildAssociation(student, "students", Type.MANY, "uni", Type.ONE);
+      return mb.getClassModel();
+   }
+
+   @Test
+   void testSession() throws IOException
+   {
+      Tools.removeDirAndFiles(TARGET_FOLDER);
+
+      final GenerationMetrics metrics = new GenerationMetrics();
+      try (final GenerationDaemon daemon = new GenerationDaemon(Fulib.generator().setMetricsListener(metrics),
+                                                                GenerationDaemonTest::buildModel))
+      {
+         final String input = "generate\n\ngenerate\nfoo\ninvalidate\nquit\ngenerate\n";
+         final ByteArrayOutputStream out = new ByteArrayOutputStream();
+         daemon.serve(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+
+         final String[] lines = out.toString("UTF-8").split("\\R");
+         assertThat(lines.length, equalTo(5));
+         assertThat(lines[0], startsWith("ok "));
+         assertThat(lines[1], startsWith("ok "));
+         assertThat(lines[2], equalTo("error unknown command: foo"));
+         assertThat(lines[3], equalTo("ok"));
+         assertThat(lines[4], equalTo("ok"));
+
+         // the second generation reuses the model of the first one instead of loading the model file
+         assertThat(daemon.getGenerationCount(), equalTo(2));
+         assertThat(metrics.getRuns(), equalTo(2L));
+         assertThat(metrics.getCount(MetricsListener.Phase.LOAD_MODEL), equalTo(1L));
+         assertThat(metrics.getCount(MetricsListener.Phase.DIFF_MODEL), equalTo(1L));
+
+         // someone else touched the model file, so it is loaded again
+         Files.setLastModifiedTime(Paths.get(SRC_FOLDER, "org/fulib/daemon/classModel.yaml"), FileTime.fromMillis(0));
+         daemon.regenerate();
+         assertThat(metrics.getCount(MetricsListener.Phase.LOAD_MODEL), equalTo(2L));
+      }
+   }
+
+   @Test
+   void testSocket() throws IOException
+   {
+      Tools.removeDirAndFiles(TARGET_FOLDER);
+
+      try (final GenerationDaemon daemon = new GenerationDaemon(Fulib.generator(), GenerationDaemonTest::buildModel))
+      {
+         final int port = daemon.listen(0);
+
+         try (final Socket socket = new Socket(InetAddress.getLoopbackAddress(), port))
+         {
+            final PrintWriter writer = new PrintWriter(
+               new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+            final BufferedReader reader = new BufferedReader(
+               new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            writer.println("generate");
+            assertThat(reader.readLine(), startsWith("ok "));
+            writer.println("quit");
+            assertThat(reader.readLine(), equalTo("ok"));
+         }
+
+         assertThat(daemon.getGenerationCount(), equalTo(1));
+         assertThat(Files.exists(Paths.get(SRC_FOLDER, "org/fulib/daemon/University.java")), equalTo(true));
+      }
+   }
+
+   @Test
+   void testWatch() throws Exception
+   {
+      Tools.removeDirAndFiles(TARGET_FOLDER);
+
+      final AtomicReference<Runnable> duringGeneration = new AtomicReference<>();
+      final BlockingQueue<Set<Path>> changes = new LinkedBlockingQueue<>();
+      try (final GenerationDaemon daemon = new GenerationDaemon(Fulib.generator().setAtomicWrites(true), () -> {
+         final Runnable action = duringGeneration.getAndSet(null);
+         if (action != null)
+         {
+            action.run();
+         }
+         return buildModel();
+      }))
+      {
+         daemon.setChangeListener(changes::add);
+         daemon.watch(Paths.get(SRC_FOLDER));
+
+         // the generated files, their new package directories and the temporary files of atomic writes
+         // do not trigger another generation.
+         // if they did, the watcher would report them before the changes awaited below
+         daemon.regenerate();
+         daemon.regenerate();
+
+         // a burst of changes triggers one generation
+         final Path[] notes = new Path[5];
+         for (int i = 0; i < notes.length; i++)
+         {
+            notes[i] = Paths.get(SRC_FOLDER, "notes" + i + ".txt");
+            write(notes[i], "note " + i);
+         }
+         awaitChanges(changes, notes);
+         assertThat(daemon.getGenerationCount(), equalTo(3));
+
+         // files in new subdirectories are picked up, even if they are created before the directory is watched
+         final Path newFile = Paths.get(SRC_FOLDER, "extra/deep/notes.txt");
+         Files.createDirectories(newFile.getParent());
+         write(newFile, "new");
+         awaitChanges(changes, newFile);
+         write(newFile, "changed");
+         awaitChanges(changes, newFile);
+         assertThat(daemon.getGenerationCount(), equalTo(5));
+
+         // a change while a generation is running triggers another one after it
+         final Path duringFile = Paths.get(SRC_FOLDER, "during.txt");
+         duringGeneration.set(() -> write(duringFile, "during"));
+         daemon.regenerate();
+         awaitChanges(changes, duringFile);
+         assertThat(daemon.getGenerationCount(), equalTo(7));
+
+         // generated files that are changed or deleted by someone else do trigger a generation
+         final Path uniFile = Paths.get(SRC_FOLDER, "org/fulib/daemon/University.java");
+         write(uniFile, new String(Files.readAllBytes(uniFile), StandardCharsets.UTF_8) + "\n");
+         awaitChanges(changes, uniFile);
+         Files.delete(uniFile);
+         awaitChanges(changes, uniFile);
+         assertThat(Files.exists(uniFile), equalTo(true));
+
+         // the last generation did not trigger another one either, which a change made after it shows
+         final Path lastFile = Paths.get(SRC_FOLDER, "last.txt");
+         write(lastFile, "last");
+         awaitChanges(changes, lastFile);
+         assertThat(daemon.getGenerationCount(), equalTo(10));
+      }
+   }
+
+   @Test
+   void testWatchTemplates() throws Exception
+   {
+      Tools.removeDirAndFiles(TARGET_FOLDER);
+
+      final Path customFile = Paths.get(TEMPLATES_FOLDER, "custom.stg");
+      Files.createDirectories(customFile.getParent());
+      write(customFile, customGetter("first"));
+      STGroupCache.invalidate(customFile.toString());
+
+      final Generator generator = Fulib.generator().setCustomTemplatesFile(customFile.toString());
+      final BlockingQueue<Set<Path>> changes = new LinkedBlockingQueue<>();
+      try (final GenerationDaemon daemon = new GenerationDaemon(generator, GenerationDaemonTest::buildModel))
+      {
+         daemon.setChangeListener(changes::add);
+         daemon.watch(Paths.get(TEMPLATES_FOLDER));
+         daemon.regenerate();
+
+         final Path uniFile = Paths.get(SRC_FOLDER, "org/fulib/daemon/University.java");
+         assertThat(new String(Files.readAllBytes(uniFile), StandardCharsets.UTF_8), containsString("// first"));
+
+         // the changed template is invalidated in the template cache, so the next generation uses it
+         write(customFile, customGetter("second"));
+         awaitChanges(changes, customFile);
+         assertThat(daemon.getGenerationCount(), equalTo(2));
+         assertThat(new String(Files.readAllBytes(uniFile), StandardCharsets.UTF_8), containsString("// second"));
+      }
+   }
+
+   private static String customGetter(String comment)
+   {
+      return "attrGet(attr) ::= <<\n" //
+             + "   public <attr.type> get<attr.name; format=\"cap\">()\n" //
+             + "   {\n" //
+             + "      return this.<attr.name>; // " + comment + "\n" //
+             + "   }\n" //
+             + ">>\n";
+   }
+
+   private static void write(Path path, String content)
+   {
+      try
+      {
+         Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+      }
+      catch (IOException e)
+      {
+         throw new UncheckedIOException(e);
+      }
+   }
+
+   // waits until the watcher reports its next generation, which must have been caused by exactly these files
+   private static void awaitChanges(BlockingQueue<Set<Path>> changes, Path... expected) throws InterruptedException
+   {
+      final Set<Path> actual = changes.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      assertThat("no generation within " + TIMEOUT_SECONDS + " s", actual, notNullValue());
+
+      final Set<Path> expectedSet = new LinkedHashSet<>();
+      for (final Path path : expected)
+      {
+         expectedSet.add(path.toAbsolutePath().normalize());
+      }
+      assertThat(actual, equalTo(expectedSet));
+   }
+}
@@ -0,0 +1,101 @@
+package org.fulib.generator;
+
+import org.fulib.Fulib;
+import org.fulib.GenerationMetrics;
+import org.fulib.Generator;
+import org.fulib.MetricsListener;
+import org.fulib.Tools;
+import org.fulib.builder.ClassBuilder;
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.Type;
+import org.fulib.classmodel.ClassModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class GenerationMetricsTest
+{
+   @Test
+   void testMetrics() throws IOException
+   {
+      final String targetFolder = "tmp/metrics";
+      final String srcFolder = targetFolder + "/src";
+
+      Tools.removeDirAndFiles(targetFolder);
+
+      final ClassModelBuilder mb = Fulib.classModelBuilder("org.fulib.metrics", srcFolder);
+      final ClassBuilder uni = mb.buildClass("University").buildAttribute("name", Type.STRING);
+      final ClassBuilder student = mb.buildClass("Student").buildAttribute("name", Type.STRING);
+      uni.buildAssociation(student, "students", Type.MANY, "uni", Type.ONE);
+      final ClassModel model = mb.getClassModel();
+
+      // first run: nothing to load or parse, everything is new
+      final GenerationMetrics first = new GenerationMetrics();
+      final Generator generator = Fulib.generator().setMetricsListener(first);
+      generator.generate(model);
+
+      assertThat(first.getRuns(), equalTo(1L));
+      assertThat(first.getCount(MetricsListener.Phase.LOAD_MODEL), equalTo(1L));
+      assertThat(first.getCount(MetricsListener.Phase.DIFF_MODEL), equalTo(0L));
+      assertThat(first.getCount(MetricsListener.Phase.PARSE), equalTo(0L));
+      assertThat(first.getCount(MetricsListener.Phase.RENDER), greaterThan(0L));
+      assertThat(first.getCount(MetricsListener.Phase.COMPRESS), equalTo(2L));
+      assertThat(first.getCount(MetricsListener.Phase.WRITE), equalTo(2L));
+      assertThat(first.getCount(MetricsListener.Phase.SAVE_MODEL), equalTo(1L));
+      assertThat(first.getAddedFragments(), greaterThan(0L));
+      assertThat(first.getReplacedFragments(), equalTo(0L));
+      assertThat(first.getWrittenFiles(), equalTo(2L));
+
+      final Path uniFile = Paths.get(model.getPackageSrcFolder(), "University.java");
+      final Path studentFile = Paths.get(model.getPackageSrcFolder(), "Student.java");
+      assertThat(first.getBytesWritten(), equalTo(Files.size(uniFile) + Files.size(studentFile)));
+
+      // protect one member
+      final String uniText = new String(Files.readAllBytes(uniFile), StandardCharsets.UTF_8);
+      final String protectedText = uniText.replace("return this.name;", "return this.name; // no fulib");
+      Files.write(uniFile, protectedText.getBytes(StandardCharsets.UTF_8));
+
+      // second run: both files are parsed, but the model did not change, so nothing is replaced
+      final GenerationMetrics second = new GenerationMetrics();
+      generator.setMetricsListener(second).generate(model);
+
+      assertThat(second.getCount(MetricsListener.Phase.DIFF_MODEL), equalTo(1L));
+      assertThat(second.getCount(MetricsListener.Phase.PARSE), equalTo(2L));
+      assertThat(second.getAddedFragments(), equalTo(0L));
+      assertThat(second.getReplacedFragments(), equalTo(0L));
+      assertThat(second.getSkippedFragments(), equalTo(1L));
+
+      final String json = second.toJson();
+      assertThat(json, containsString("\"runs\": 1"));
+      assertThat(json, containsString("\"skipped\": 1"));
+      assertThat(json, containsString("\"parse\": {"));
+      assertThat(json, containsString("\"attrGet\": {"));
+
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      second.printReport(new PrintStream(out, true));
+      assertThat(out.toString(), containsString("1 skipped (no fulib)"));
+
+      // third run: only the hand-edited getter is replaced
+      final String studentText = new String(Files.readAllBytes(studentFile), StandardCharsets.UTF_8);
+      final String editedText = studentText.replace("return this.name;", "return null;");
+      Files.write(studentFile, editedText.getBytes(StandardCharsets.UTF_8));
+
+      final GenerationMetrics third = new GenerationMetrics();
+      generator.setMetricsListener(third).generate(model);
+
+      assertThat(third.getReplacedFragments(), equalTo(1L));
+      assertThat(third.getSkippedFragments(), equalTo(1L));
+      assertThat(new String(Files.readAllBytes(studentFile), StandardCharsets.UTF_8), equalTo(studentText));
+   }
+}
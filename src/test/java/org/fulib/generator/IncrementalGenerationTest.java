@@ -0,0 +1,136 @@
+package org.fulib.generator;
+
+import org.fulib.Fulib;
+import org.fulib.Generator;
+import org.fulib.Tools;
+import org.fulib.builder.ClassBuilder;
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.Type;
+import org.fulib.classmodel.ClassModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class IncrementalGenerationTest
+{
+   private static final String PACKAGE_NAME = "org.fulib.incremental";
+
+   @Test
+   void testIncrementalGeneration() throws IOException
+   {
+      final String targetFolder = "tmp/incremental";
+      final String incrementalFolder = targetFolder + "/incremental";
+      final String fullFolder = targetFolder + "/full";
+
+      Tools.removeDirAndFiles(targetFolder);
+
+      final Generator generator = Fulib.generator().setIncremental(true);
+
+      final ClassModel firstModel = buildModel(incrementalFolder, false);
+      generator.generate(firstModel);
+      assertThat(generator.getWrittenFileCount(), equalTo(4));
+      assertThat(generator.getUpToDateClassCount(), equalTo(0));
+
+      final Path packageFolder = Paths.get(firstModel.getPackageSrcFolder());
+      assertThat(Files.exists(packageFolder.resolve("classModelFingerprints.properties")), is(true));
+
+      final FileTime oldTime = FileTime.fromMillis(0);
+      for (final String name : new String[] { "University", "Student", "Room", "Lecturer" })
+      {
+         Files.setLastModifiedTime(packageFolder.resolve(name + ".java"), oldTime);
+      }
+
+      // nothing changed
+      generator.generate(buildModel(incrementalFolder, false));
+      assertThat(generator.getWrittenFileCount(), equalTo(0));
+      assertThat(generator.getSkippedFileCount(), equalTo(0));
+      assertThat(generator.getUpToDateClassCount(), equalTo(4));
+
+      // one attribute of the room changed; the lecturer subclass of student is not affected
+      final ClassModel secondModel = buildModel(incrementalFolder, true);
+      generator.generate(secondModel);
+      assertThat(generator.getWrittenFileCount(), equalTo(1));
+      assertThat(generator.getUpToDateClassCount(), equalTo(3));
+      assertThat(Files.getLastModifiedTime(packageFolder.resolve("Room.java")), not(equalTo(oldTime)));
+      assertThat(Files.getLastModifiedTime(packageFolder.resolve("University.java")), equalTo(oldTime));
+
+      // a deleted file is generated again
+      Files.delete(packageFolder.resolve("Student.java"));
+      generator.generate(buildModel(incrementalFolder, true));
+      assertThat(generator.getWrittenFileCount(), equalTo(1));
+      assertThat(Files.exists(packageFolder.resolve("Student.java")), is(true));
+
+      // different templates invalidate all classes
+      generator.setCustomTemplatesFile("templates/custom.stg").generate(buildModel(incrementalFolder, true));
+      assertThat(generator.getWrittenFileCount(), equalTo(4));
+
+      // the result is the same as a full generation of the final model
+      final ClassModel fullModel = buildModel(fullFolder, true);
+      Fulib.generator().setCustomTemplatesFile("templates/custom.stg").generate(fullModel);
+      for (final String name : new String[] { "University", "Student", "Room", "Lecturer" })
+      {
+         assertThat(read(packageFolder.resolve(name + ".java")),
+                    equalTo(read(Paths.get(fullModel.getPackageSrcFolder(), name + ".java"))));
+      }
+   }
+
+   @Test
+   void testMixedRuns() throws IOException
+   {
+      final String targetFolder = "tmp/incrementalMixed";
+      final String mixedFolder = targetFolder + "/mixed";
+      final String fullFolder = targetFolder + "/full";
+
+      Tools.removeDirAndFiles(targetFolder);
+
+      final ClassModel firstModel = buildModel(mixedFolder, false);
+      final Path packageFolder = Paths.get(firstModel.getPackageSrcFolder());
+      final Path fingerprintsFile = packageFolder.resolve("classModelFingerprints.properties");
+
+      Fulib.generator().setIncremental(true).generate(firstModel);
+      assertThat(Files.exists(fingerprintsFile), is(true));
+
+      // a full run changes the room, and with it the files behind the fingerprints
+      Fulib.generator().generate(buildModel(mixedFolder, true));
+      assertThat(Files.exists(fingerprintsFile), is(false));
+
+      // changing the room back must not rely on the fingerprints of the first run
+      final Generator generator = Fulib.generator().setIncremental(true);
+      generator.generate(buildModel(mixedFolder, false));
+      assertThat(generator.getUpToDateClassCount(), equalTo(0));
+      assertThat(Files.exists(fingerprintsFile), is(true));
+
+      final ClassModel fullModel = buildModel(fullFolder, false);
+      Fulib.generator().generate(fullModel);
+      for (final String name : new String[] { "University", "Student", "Room", "Lecturer" })
+      {
+         assertThat(read(packageFolder.resolve(name + ".java")),
+                    equalTo(read(Paths.get(fullModel.getPackageSrcFolder(), name + ".java"))));
+      }
+   }
+
+   private static ClassModel buildModel(String srcFolder, boolean changed)
+   {
+      final ClassModelBuilder mb = Fulib.classModelBuilder(PACKAGE_NAME, srcFolder);
+      final ClassBuilder uni = mb.buildClass("University").buildAttribute("name", Type.STRING);
+      final ClassBuilder student = mb.buildClass("Student").buildAttribute("name", Type.STRING);
+      final ClassBuilder room = mb.buildClass("Room").buildAttribute("roomNo", changed ? Type.INT : Type.STRING);
+      mb.buildClass("Lecturer").setSuperClass(student);
+      uni.buildAssociation(student, "students", Type.MANY, "uni", Type.ONE);
+      uni.buildAssociation(room, "rooms", Type.MANY, "uni", Type.ONE);
+      return mb.getClassModel();
+   }
+
+   private static String read(Path path) throws IOException
+   {
+      return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+   }
+}
@@ -0,0 +1,138 @@
+package org.fulib.generator;
+
+import org.fulib.Fulib;
+import org.fulib.Tools;
+import org.fulib.builder.ClassBuilder;
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.ClassModelManager;
+import org.fulib.builder.Type;
+import org.fulib.classmodel.ClassModel;
+import org.fulib.classmodel.Clazz;
+import org.fulib.classmodel.CollectionInterface;
+import org.fulib.classmodel.CollectionType;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.beans.HasPropertyWithValue.hasProperty;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IndexedListAssociationTest extends AssociationTest
+{
+   @Override
+   protected String getTargetFolder()
+   {
+      return "tmp/indexedList/associations";
+   }
+
+   @Override
+   protected void configureModel(ClassModelBuilder mb)
+   {
+      mb.setDefaultPropertyStyle(Type.POJO);
+      mb.setDefaultCollectionType(CollectionType.IndexedList);
+   }
+
+   @Override
+   protected void runDataTests(ClassLoader classLoader, String packageName) throws Exception
+   {
+      super.runDataTests(classLoader, packageName);
+
+      final Class<?> uniClass = Class.forName(packageName + ".University", true, classLoader);
+      final Class<?> studClass = Class.forName(packageName + ".Student", true, classLoader);
+      final Class<?> indexedListClass = Class.forName(packageName + ".IndexedList", true, classLoader);
+      assertThat(List.class.isAssignableFrom(indexedListClass), is(true));
+
+      final Object uni = uniClass.newInstance();
+      final Object alice = studClass.newInstance();
+      final Object bob = studClass.newInstance();
+      final Object carol = studClass.newInstance();
+
+      final Method withStudents = uniClass.getMethod("withStudents", Collection.class);
+      final Method withoutStudents = uniClass.getMethod("withoutStudents", Collection.class);
+      final Method getStudents = uniClass.getMethod("getStudents");
+
+      // insertion order is kept, duplicates are ignored
+      withStudents.invoke(uni, Arrays.asList(alice, bob, carol, bob));
+      assertThat(uni, hasProperty("students", contains(alice, bob, carol)));
+
+      // removal keeps the order of the remaining elements, re-adding appends
+      withoutStudents.invoke(uni, Collections.singletonList(bob));
+      assertThat(uni, hasProperty("students", contains(alice, carol)));
+      assertThat(((List<?>) getStudents.invoke(uni)).get(1), sameInstance(carol));
+      assertThat(((List<?>) getStudents.invoke(uni)).indexOf(bob), is(-1));
+      assertThat(bob, hasProperty("uni", nullValue()));
+
+      withStudents.invoke(uni, Collections.singletonList(bob));
+      assertThat(uni, hasProperty("students", contains(alice, carol, bob)));
+      assertThat(((List<?>) getStudents.invoke(uni)).indexOf(bob), is(2));
+
+      // reads by position compact the list, which must not break an iterator that is removing elements
+      @SuppressWarnings("unchecked")
+      final List<Object> list = (List<Object>) indexedListClass.getConstructor(Collection.class)
+                                                               .newInstance(Arrays.asList("a", "b", "c", "d"));
+      list.remove("b");
+      final Iterator<Object> iterator = list.iterator();
+      assertThat(iterator.next(), is("a"));
+      assertThat(iterator.next(), is("c"));
+      assertThat(list.get(1), is("c"));
+      iterator.remove();
+      assertThat(list, contains("a", "d"));
+      assertThat(iterator.next(), is("d"));
+      assertThat(iterator.hasNext(), is(false));
+   }
+
+   @Test
+   public void testAttribute()
+   {
+      final String srcFolder = "tmp/indexedList/attributes/src";
+      Tools.removeDirAndFiles("tmp/indexedList/attributes");
+
+      final ClassModelBuilder mb = Fulib.classModelBuilder("org.testIndexedList", srcFolder);
+      final ClassBuilder uni = mb.buildClass("University");
+      assertThrows(IllegalArgumentException.class,
+                   () -> uni.buildAttribute("names", Type.STRING, CollectionType.IndexedList, null));
+
+      // models built without the builder are rejected before anything is generated
+      final ClassModelManager mm = new ClassModelManager().setMainJavaDir(srcFolder)
+                                                          .setPackageName("org.testIndexedList");
+      final Clazz student = mm.haveClass("Student");
+      mm.haveAttribute(student, "names", Type.STRING).setCollectionType(CollectionType.IndexedList);
+
+      assertThrows(IllegalArgumentException.class, () -> Fulib.generator().generate(mm.getClassModel()));
+      assertThat(Files.exists(Paths.get(srcFolder, "org/testIndexedList/Student.java")), is(false));
+   }
+
+   @Test
+   public void testUncachedCollectionType()
+   {
+      final String targetFolder = "tmp/indexedList/uncached";
+      final String srcFolder = targetFolder + "/src";
+      Tools.removeDirAndFiles(targetFolder);
+
+      // like a deserialized model, the role has its own CollectionType instance
+      final CollectionType collectionType = new CollectionType();
+      collectionType.setItf(CollectionInterface.List);
+      collectionType.setImplTemplate(CollectionType.IndexedList.getImplTemplate());
+
+      final ClassModelBuilder mb = Fulib.classModelBuilder("org.testIndexedList", srcFolder);
+      final ClassBuilder uni = mb.buildClass("University");
+      final ClassBuilder student = mb.buildClass("Student");
+      uni.buildAssociation(student, "students", Type.MANY, "uni", Type.ONE).setSourceRoleCollection(collectionType);
+      final ClassModel model = mb.getClassModel();
+
+      Fulib.generator().generate(model);
+
+      assertThat(Files.exists(Paths.get(model.getPackageSrcFolder(), "IndexedList.java")), is(true));
+      assertThat(Tools.javac(targetFolder + "/out", model.getPackageSrcFolder()), is(0));
+   }
+}
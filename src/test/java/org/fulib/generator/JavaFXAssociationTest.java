@@ -8,6 +8,8 @@ import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -164,5 +166,44 @@ public class JavaFXAssociationTest extends BeanAssociationTest
       assertThat(karli, hasProperty("uni", nullValue()));
       assertThat(wa1337, hasProperty("uni", nullValue()));
       assertThat(wa1337, hasProperty("students", not(containsInAnyOrder(karli))));
+
+      this.runBulkEventTests(classLoader, packageName);
+   }
+
+   @Override
+   protected void runBulkEventTests(ClassLoader classLoader, String packageName) throws Exception
+   {
+      super.runBulkEventTests(classLoader, packageName);
+
+      final Class<?> uniClass = Class.forName(packageName + ".University", true, classLoader);
+      final Class<?> studClass = Class.forName(packageName + ".Student", true, classLoader);
+
+      final Object uni = uniClass.newInstance();
+      final Object alice = studClass.newInstance();
+      final Object bob = studClass.newInstance();
+
+      final List<PropertyChangeEvent> events = new ArrayList<>();
+      ((PropertyChangeSupport) uniClass.getMethod("listeners").invoke(uni)).addPropertyChangeListener(events::add);
+
+      // changes to the list property itself are linked and reported the same way
+      @SuppressWarnings("unchecked")
+      final List<Object> students = (List<Object>) uniClass.getMethod("getStudents").invoke(uni);
+      students.addAll(Arrays.asList(alice, bob));
+      assertThat(alice, hasProperty("uni", sameInstance(uni)));
+      assertThat(bob, hasProperty("uni", sameInstance(uni)));
+      assertThat(events.size(), is(2));
+      assertThat(events.get(0).getNewValue(), sameInstance(alice));
+      assertThat(events.get(1).getNewValue(), sameInstance(bob));
+
+      students.remove(bob);
+      assertThat(bob, hasProperty("uni", nullValue()));
+      assertThat(events.size(), is(3));
+      assertThat(events.get(2).getOldValue(), sameInstance(bob));
+      assertThat(events.get(2).getNewValue(), nullValue());
+
+      students.clear();
+      assertThat(alice, hasProperty("uni", nullValue()));
+      assertThat(events.size(), is(4));
+      assertThat(events.get(3).getOldValue(), sameInstance(alice));
    }
 }
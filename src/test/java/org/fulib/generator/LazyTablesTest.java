@@ -0,0 +1,389 @@
+package org.fulib.generator;
+
+import org.fulib.Fulib;
+import org.fulib.Tools;
+import org.fulib.builder.ClassBuilder;
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.Type;
+import org.fulib.classmodel.ClassModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LazyTablesTest
+{
+   private static final String PACKAGE_NAME = "org.fulib.lazytables";
+
+   private Class<?> uniClass;
+   private Class<?> uniTableClass;
+   private Method getCredits;
+   private Object uni;
+   private int studentCount;
+
+   @Test
+   void testLazyTables() throws Exception
+   {
+      final String targetFolder = "tmp/lazy-tables";
+      final String srcFolder = targetFolder + "/src";
+      final String outFolder = targetFolder + "/out";
+
+      Tools.removeDirAndFiles(targetFolder);
+
+      final ClassModelBuilder mb = Fulib.classModelBuilder(PACKAGE_NAME, srcFolder);
+      final ClassBuilder uni = mb.buildClass("University").buildAttribute("name", Type.STRING);
+      final ClassBuilder student = mb.buildClass("Student").buildAttribute("name", Type.STRING)
+                                     .buildAttribute("credits", Type.INT);
+      student.buildAssociation(student, "friends", Type.MANY, "friends", Type.MANY);
+      uni.buildAssociation(student, "students", Type.MANY, "uni", Type.ONE);
+
+      final ClassModel model = mb.getClassModel();
+      Fulib.generator().generate(model);
+      Fulib.tablesGenerator().generate(model);
+
+      final int returnCode = Tools.javac(outFolder, model.getPackageSrcFolder());
+      assertThat("compiler return code: ", returnCode, is(0));
+
+      try (final URLClassLoader classLoader = URLClassLoader
+         .newInstance(new URL[] { new File(outFolder).toURI().toURL() }))
+      {
+         this.createData(classLoader);
+         this.runPushdownTests();
+         this.runChainTests();
+         this.runRandomizedTests();
+         this.runParallelTests();
+      }
+   }
+
+   private void createData(ClassLoader classLoader) throws Exception
+   {
+      this.uniClass = Class.forName(PACKAGE_NAME + ".University", true, classLoader);
+      this.uniTableClass = Class.forName(PACKAGE_NAME + ".tables.UniversityTable", true, classLoader);
+      final Class<?> studClass = Class.forName(PACKAGE_NAME + ".Student", true, classLoader);
+      final Method setName = studClass.getMethod("setName", String.class);
+      final Method setCredits = studClass.getMethod("setCredits", int.class);
+      final Method setUni = studClass.getMethod("setUni", this.uniClass);
+      final Method withFriends = studClass.getMethod("withFriends", studClass);
+      this.getCredits = studClass.getMethod("getCredits");
+
+      this.uni = this.uniClass.newInstance();
+      this.uniClass.getMethod("setName", String.class).invoke(this.uni, "Study Right");
+
+      final Random random = new Random(7);
+      final List<Object> students = new ArrayList<>();
+      this.studentCount = 12;
+      for (int i = 0; i < this.studentCount; i++)
+      {
+         final Object student = studClass.newInstance();
+         setName.invoke(student, "s" + i);
+         setCredits.invoke(student, random.nextInt(40));
+         setUni.invoke(student, this.uni);
+         students.add(student);
+      }
+      for (final Object student : students)
+      {
+         for (int k = random.nextInt(4); k > 0; k--)
+         {
+            withFriends.invoke(student, students.get(random.nextInt(students.size())));
+         }
+      }
+   }
+
+   private void runPushdownTests() throws Exception
+   {
+      final AtomicInteger tested = new AtomicInteger();
+      final Predicate<Object> countedFilter = student -> {
+         tested.incrementAndGet();
+         return this.credits(student) > 20;
+      };
+
+      // a filter on the students moves ahead of the expansion of their friends
+      Object uniTable = this.newUniTable(true, false);
+      Object students = call(uniTable, "expandStudents", "S");
+      Object friends = call(students, "expandFriends", "F");
+      call(students, "filter", countedFilter);
+      final String lazyResult = friends.toString();
+      assertThat(tested.get(), is(this.studentCount));
+
+      uniTable = this.newUniTable(false, false);
+      students = call(uniTable, "expandStudents", "S");
+      friends = call(students, "expandFriends", "F");
+      call(students, "filter", countedFilter);
+      assertThat(lazyResult, equalTo(friends.toString()));
+
+      // filters stay behind row filters and behind select / drop, which remove duplicate rows
+      final Predicate<Map<String, Object>> rowFilter = row -> row.get("S") != row.get("F");
+      final List<Function<Object, Object>> barriers = new ArrayList<>();
+      barriers.add(table -> call(table, "filterRow", rowFilter));
+      barriers.add(table -> call(table, "selectColumns", (Object) new String[] { "S" }));
+      barriers.add(table -> call(table, "dropColumns", (Object) new String[] { "F" }));
+
+      for (final Function<Object, Object> barrier : barriers)
+      {
+         uniTable = this.newUniTable(false, false);
+         students = call(uniTable, "expandStudents", "S");
+         call(students, "expandFriends", "F");
+         barrier.apply(students);
+         final int rowsAfterBarrier = this.size(uniTable);
+
+         tested.set(0);
+         uniTable = this.newUniTable(true, false);
+         students = call(uniTable, "expandStudents", "S");
+         call(students, "expandFriends", "F");
+         barrier.apply(students);
+         call(students, "filter", countedFilter);
+         final String lazyFiltered = uniTable.toString();
+         assertThat(tested.get(), is(rowsAfterBarrier));
+
+         uniTable = this.newUniTable(false, false);
+         students = call(uniTable, "expandStudents", "S");
+         call(students, "expandFriends", "F");
+         barrier.apply(students);
+         call(students, "filter", countedFilter);
+         assertThat(lazyFiltered, equalTo(uniTable.toString()));
+      }
+   }
+
+   private void runChainTests() throws Exception
+   {
+      final String eager = this.runChain(false, false);
+      assertThat(this.runChain(true, false), equalTo(eager));
+      assertThat(this.runChain(false, true), equalTo(eager));
+      assertThat(this.runChain(true, true), equalTo(eager));
+   }
+
+   private String runChain(boolean lazy, boolean parallel) throws Exception
+   {
+      final Object uniTable = this.newUniTable(lazy, parallel);
+      final Object students = call(uniTable, "expandStudents", "S");
+      final Object friends = call(students, "expandFriends", "F");
+      call(students, "addColumn", "Pair", (Function<Map<String, Object>, Object>) row -> row.get("S") + "/" + row
+         .get("F"));
+      call(friends, "filter", (Predicate<Object>) friend -> this.credits(friend) >= 10);
+      call(friends, "selectColumns", (Object) new String[] { "S", "F", "Pair" });
+      final Object credits = call(friends, "expandCredits", "C");
+
+      return uniTable + "\n" + call(credits, "count") + " " + call(credits, "sum") + " " + call(credits, "min") + " "
+             + call(credits, "max") + " " + call(credits, "average") + " " + call(credits, "median");
+   }
+
+   // applies random operation chains eagerly, lazily and in parallel, and compares the results
+   private void runRandomizedTests() throws Exception
+   {
+      final Random random = new Random(42);
+      for (int i = 0; i < 500; i++)
+      {
+         final long seed = random.nextLong();
+         final String eager = this.runRandomChain(seed, false, false);
+         assertThat("seed " + seed, this.runRandomChain(seed, true, false), equalTo(eager));
+         assertThat("seed " + seed, this.runRandomChain(seed, false, true), equalTo(eager));
+         assertThat("seed " + seed, this.runRandomChain(seed, true, true), equalTo(eager));
+      }
+   }
+
+   private String runRandomChain(long seed, boolean lazy, boolean parallel) throws Exception
+   {
+      final Random random = new Random(seed);
+      final StringBuilder log = new StringBuilder();
+      final Object uniTable = this.newUniTable(lazy, parallel);
+      final List<Object> students = new ArrayList<>();
+      final List<Object> credits = new ArrayList<>();
+      final List<String> names = new ArrayList<>();
+      names.add("University");
+      students.add(call(uniTable, "expandStudents", "S0"));
+      names.add("S0");
+      int columns = 1;
+
+      try
+      {
+         for (int op = random.nextInt(7); op > 0; op--)
+         {
+            final Object table = students.get(random.nextInt(students.size()));
+            switch (random.nextInt(8))
+            {
+            case 0:
+            case 1:
+               final String friendsName = "S" + columns++;
+               students.add(call(table, "expandFriends", friendsName));
+               names.add(friendsName);
+               break;
+            case 2:
+               final int limit = random.nextInt(40);
+               call(table, "filter", (Predicate<Object>) student -> this.credits(student) > limit);
+               break;
+            case 3:
+               call(table, "hasFriends", students.get(random.nextInt(students.size())));
+               break;
+            case 4:
+               final String creditsName = "C" + columns++;
+               credits.add(call(table, "expandCredits", creditsName));
+               names.add(creditsName);
+               break;
+            case 5:
+               final List<String> selected = new ArrayList<>();
+               for (final String name : names)
+               {
+                  if (random.nextBoolean())
+                  {
+                     selected.add(name);
+                  }
+               }
+               if (selected.isEmpty())
+               {
+                  break;
+               }
+               call(table, "selectColumns", (Object) selected.toArray(new String[0]));
+               names.retainAll(selected);
+               students.removeIf(t -> !selected.contains(call(t, "getColumnName")));
+               credits.removeIf(t -> !selected.contains(call(t, "getColumnName")));
+               if (students.isEmpty())
+               {
+                  return log.append(uniTable).toString();
+               }
+               break;
+            case 6:
+               final String addedName = "X" + columns++;
+               final Object column = call(table, "getColumnName");
+               call(table, "addColumn", addedName,
+                    (Function<Map<String, Object>, Object>) row -> row.size() + ":" + row.get(column));
+               names.add(addedName);
+               break;
+            case 7:
+               call(table, "filterRow", (Predicate<Map<String, Object>>) row -> row.toString().hashCode() % 3 != 0);
+               break;
+            }
+         }
+         log.append(uniTable).append(call(students.get(0), "toSet"));
+         for (final Object table : credits)
+         {
+            log.append(' ').append(call(table, "sum")).append(' ').append(call(table, "max"));
+         }
+      }
+      catch (IllegalArgumentException ex)
+      {
+         // e.g. a column that was removed by selectColumns
+         log.append(ex);
+      }
+      return log.toString();
+   }
+
+   private void runParallelTests() throws Exception
+   {
+      final Object store = call(this.newUniTable(false, true), "getStore");
+      assertThrows(IllegalArgumentException.class, () -> call(store, "setParallelThreshold", 0));
+
+      // with threshold 1, even these small tables are split into ranges
+      assertThat(this.runParallelChain(false, true), equalTo(this.runParallelChain(false, false)));
+      assertThat(this.runParallelChain(true, true), equalTo(this.runParallelChain(true, false)));
+
+      // tables that become empty stay sequential
+      for (final boolean lazy : new boolean[] { false, true })
+      {
+         final Object uniTable = this.newUniTable(lazy, true);
+         final Object students = call(uniTable, "expandStudents", "S");
+         call(students, "filter", (Predicate<Object>) student -> false);
+         final Object credits = call(call(students, "expandFriends", "F"), "expandCredits", "C");
+         assertThat(call(credits, "count"), is(0));
+         assertThat(call(credits, "sum"), is(0));
+      }
+   }
+
+   private String runParallelChain(boolean lazy, boolean parallel) throws Exception
+   {
+      final StringBuilder result = new StringBuilder();
+      final Object uniTable = this.newUniTable(lazy, parallel);
+      final Object students = call(uniTable, "expandStudents", "S");
+      final Object friends = call(students, "expandFriends", "F");
+      result.append(uniTable);
+
+      call(friends, "filterRow", (Predicate<Map<String, Object>>) row -> row.get("S") != row.get("F"));
+      result.append(uniTable);
+
+      call(students, "addColumn", "Pair", (Function<Map<String, Object>, Object>) row -> row.get("S") + "/" + row
+         .get("F"));
+      result.append(uniTable);
+
+      final Object credits = call(friends, "expandCredits", "C");
+      final Method histogram = credits.getClass().getMethod("histogram", int.class, int.class, int.class);
+      result.append(call(credits, "sum")).append(' ').append(call(credits, "min")).append(' ')
+            .append(call(credits, "max")).append(' ')
+            .append(Arrays.toString((int[]) histogram.invoke(credits, 0, 40, 4)));
+      return result.toString();
+   }
+
+   // =============== Helpers ===============
+
+   private Object newUniTable(boolean lazy, boolean parallel) throws Exception
+   {
+      final Object uniArray = Array.newInstance(this.uniClass, 1);
+      Array.set(uniArray, 0, this.uni);
+      final Object uniTable = this.uniTableClass.getConstructor(uniArray.getClass()).newInstance(uniArray);
+      final Object store = call(uniTable, "getStore");
+      call(store, "setLazy", lazy);
+      call(store, "setParallel", parallel);
+      call(store, "setParallelThreshold", 1);
+      return uniTable;
+   }
+
+   private int size(Object table)
+   {
+      return (Integer) call(call(table, "getStore"), "size");
+   }
+
+   private int credits(Object student)
+   {
+      try
+      {
+         return (Integer) this.getCredits.invoke(student);
+      }
+      catch (ReflectiveOperationException ex)
+      {
+         throw new RuntimeException(ex);
+      }
+   }
+
+   // calls the public method with the given name and number of parameters
+   private static Object call(Object target, String name, Object... args)
+   {
+      for (final Method method : target.getClass().getMethods())
+      {
+         if (!method.getName().equals(name) || method.getParameterCount() != args.length)
+         {
+            continue;
+         }
+         try
+         {
+            return method.invoke(target, args);
+         }
+         catch (InvocationTargetException ex)
+         {
+            if (ex.getCause() instanceof RuntimeException)
+            {
+               throw (RuntimeException) ex.getCause();
+            }
+            throw new RuntimeException(ex.getCause());
+         }
+         catch (IllegalAccessException ex)
+         {
+            throw new RuntimeException(ex);
+         }
+      }
+      throw new IllegalStateException("no method " + name + " with " + args.length + " parameters");
+   }
+}
@@ -0,0 +1,19 @@
+package org.fulib.generator;
+
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.Type;
+
+public class ListenerAssociationTest extends AssociationTest
+{
+   @Override
+   protected String getTargetFolder()
+   {
+      return "tmp/listener/associations";
+   }
+
+   @Override
+   protected void configureModel(ClassModelBuilder mb)
+   {
+      mb.setDefaultPropertyStyle(Type.LISTENER);
+   }
+}
@@ -0,0 +1,85 @@
+package org.fulib.generator;
+
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.Type;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.beans.HasPropertyWithValue.hasProperty;
+
+public class ListenerAttributeTest extends AttributeTest
+{
+   @Override
+   protected String getTargetFolder()
+   {
+      return "tmp/listener/attributes";
+   }
+
+   @Override
+   protected void configureModel(ClassModelBuilder mb)
+   {
+      mb.setDefaultPropertyStyle(Type.LISTENER);
+   }
+
+   @Override
+   protected void runDataTests(ClassLoader classLoader, String packageName) throws Exception
+   {
+      final Class<?> listenerClass = Class.forName(packageName + ".PropertyListener", true, classLoader);
+      final Class<?> studClass = Class.forName(packageName + ".Student", true, classLoader);
+
+      // the generated classes do not need java.desktop
+      for (final Method method : studClass.getMethods())
+      {
+         assertThat(method.getReturnType().getName(), not(startsWith("java.beans")));
+         for (final Class<?> parameterType : method.getParameterTypes())
+         {
+            assertThat(parameterType.getName(), not(startsWith("java.beans")));
+         }
+      }
+
+      // records [parameter type, property, old value, new value]
+      final List<List<Object>> events = new ArrayList<>();
+      final Object listener = Proxy.newProxyInstance(classLoader, new Class<?>[] { listenerClass }, (proxy, method, args) -> {
+         events.add(Arrays.asList(method.getParameterTypes()[2], args[1], args[2], args[3]));
+         return null;
+      });
+
+      final Method addListener = studClass.getMethod("addPropertyListener", listenerClass);
+      final Method removeListener = studClass.getMethod("removePropertyListener", listenerClass);
+
+      final Object karli = studClass.newInstance();
+      studClass.getMethod("setName", String.class).invoke(karli, "Karli");
+
+      addListener.invoke(karli, listener);
+
+      final Method setMatrNo = studClass.getMethod("setMatrNo", long.class);
+      assertThat(setMatrNo.invoke(karli, 42), is(sameInstance(karli)));
+      assertThat(karli, hasProperty("matrNo", equalTo(42L)));
+      assertThat(events.size(), is(1));
+      assertThat(events.get(0), is(Arrays.<Object>asList(long.class, "matrNo", 0L, 42L)));
+
+      // same value, no change
+      setMatrNo.invoke(karli, 42);
+      assertThat(events.size(), is(1));
+
+      studClass.getMethod("setName", String.class).invoke(karli, "Lee");
+      assertThat(events.size(), is(2));
+      assertThat(events.get(1), is(Arrays.<Object>asList(Object.class, "name", "Karli", "Lee")));
+
+      studClass.getMethod("setMaster", boolean.class).invoke(karli, true);
+      assertThat(events.get(2), is(Arrays.<Object>asList(boolean.class, "master", false, true)));
+
+      removeListener.invoke(karli, listener);
+      setMatrNo.invoke(karli, 23);
+      assertThat(events.size(), is(3));
+      assertThat(karli, hasProperty("matrNo", equalTo(23L)));
+
+      checkBoolean(studClass, karli);
+   }
+}
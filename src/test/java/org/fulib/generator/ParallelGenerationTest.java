@@ -0,0 +1,115 @@
+package org.fulib.generator;
+
+import org.fulib.Fulib;
+import org.fulib.Tools;
+import org.fulib.builder.ClassBuilder;
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.Type;
+import org.fulib.classmodel.ClassModel;
+import org.fulib.classmodel.CollectionType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ParallelGenerationTest
+{
+   private static final String PACKAGE_NAME = "org.fulib.parallel";
+   private static final int CLASS_COUNT = 40;
+
+   @Test
+   void testParallelOutputIsIdentical() throws IOException
+   {
+      final String targetFolder = "tmp/parallel";
+      final String sequentialFolder = targetFolder + "/sequential";
+      final String parallelFolder = targetFolder + "/parallel";
+
+      Tools.removeDirAndFiles(targetFolder);
+
+      final ExecutorService executor = Executors.newFixedThreadPool(4);
+      try
+      {
+         // first generation
+         final ClassModel sequentialModel = buildModel(sequentialFolder, false);
+         final ClassModel parallelModel = buildModel(parallelFolder, false);
+
+         Fulib.generator().generate(sequentialModel);
+         Fulib.generator().setExecutor(executor).generate(parallelModel);
+
+         Fulib.tablesGenerator().generate(sequentialModel);
+         Fulib.tablesGenerator().setExecutor(executor).generate(parallelModel);
+
+         assertThat(readFiles(parallelFolder), equalTo(readFiles(sequentialFolder)));
+
+         // second generation with an evolved model, which removes and rewrites code in existing files
+         final ClassModel evolvedSequentialModel = buildModel(sequentialFolder, true);
+         final ClassModel evolvedParallelModel = buildModel(parallelFolder, true);
+
+         Fulib.generator().generate(evolvedSequentialModel);
+         Fulib.generator().setParallel(true).generate(evolvedParallelModel);
+
+         final Map<Path, String> sequentialFiles = readFiles(sequentialFolder);
+         assertThat(readFiles(parallelFolder), equalTo(sequentialFiles));
+         assertThat(sequentialFiles.containsKey(Paths.get("org/fulib/parallel/Class0.java")), is(false));
+         assertThat(sequentialFiles.get(Paths.get("org/fulib/parallel/Class1.java")), containsString("renamed"));
+      }
+      finally
+      {
+         executor.shutdown();
+      }
+
+      final int returnCode = Tools.javac(targetFolder + "/out", parallelFolder);
+      assertThat("compiler return code: ", returnCode, is(0));
+   }
+
+   private static ClassModel buildModel(String srcFolder, boolean evolved)
+   {
+      final ClassModelBuilder mb = Fulib.classModelBuilder(PACKAGE_NAME, srcFolder);
+      final ClassBuilder[] classes = new ClassBuilder[CLASS_COUNT];
+
+      for (int i = evolved ? 1 : 0; i < CLASS_COUNT; i++)
+      {
+         final ClassBuilder clazz = mb.buildClass("Class" + i);
+         if (i % 3 == 0)
+         {
+            clazz.setPropertyStyle(Type.BEAN);
+         }
+         clazz.buildAttribute(evolved && i % 2 == 1 ? "renamed" : "name", Type.STRING);
+         clazz.buildAttribute("count", evolved && i % 5 == 0 ? Type.LONG : Type.INT);
+         clazz.buildAttribute("tags", Type.STRING, CollectionType.ArrayList, null);
+         classes[i] = clazz;
+      }
+
+      for (int i = evolved ? 2 : 1; i < CLASS_COUNT; i++)
+      {
+         classes[i - 1].buildAssociation(classes[i], "next", Type.ONE, "previous", Type.ONE);
+         classes[i].buildAssociation(classes[i - 1], "children" + i, Type.MANY, "parent" + i, Type.ONE);
+      }
+
+      return mb.getClassModel();
+   }
+
+   private static Map<Path, String> readFiles(String folder) throws IOException
+   {
+      final Path root = Paths.get(folder);
+      final Map<Path, String> result = new TreeMap<>();
+      try (final Stream<Path> paths = Files.walk(root))
+      {
+         for (final Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator)
+         {
+            result.put(root.relativize(path), new String(Files.readAllBytes(path)));
+         }
+      }
+      return result;
+   }
+}
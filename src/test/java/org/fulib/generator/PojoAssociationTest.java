@@ -0,0 +1,114 @@
+package org.fulib.generator;
+
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.Type;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.beans.HasPropertyWithValue.hasProperty;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+public class PojoAssociationTest extends AssociationTest
+{
+   @Override
+   protected String getTargetFolder()
+   {
+      return "tmp/pojo/associations";
+   }
+
+   @Override
+   protected void configureModel(ClassModelBuilder mb)
+   {
+      mb.setDefaultPropertyStyle(Type.POJO);
+   }
+
+   @Override
+   protected void runDataTests(ClassLoader classLoader, String packageName) throws Exception
+   {
+      super.runDataTests(classLoader, packageName);
+
+      final Class<?> uniClass = Class.forName(packageName + ".University", true, classLoader);
+      final Class<?> studClass = Class.forName(packageName + ".Student", true, classLoader);
+      final Class<?> roomClass = Class.forName(packageName + ".Room", true, classLoader);
+
+      final Object uni = uniClass.newInstance();
+      final Object otherUni = uniClass.newInstance();
+      final Object alice = studClass.newInstance();
+      final Object bob = studClass.newInstance();
+      final Object carol = studClass.newInstance();
+
+      // bulk with keeps the order, skips duplicates and links every element once
+      final Method withStudents = uniClass.getMethod("withStudents", Collection.class);
+      withStudents.invoke(uni, Arrays.asList(alice, bob, alice, carol));
+      assertThat(uni, hasProperty("students", contains(alice, bob, carol)));
+      assertThat(alice, hasProperty("uni", sameInstance(uni)));
+      assertThat(carol, hasProperty("uni", sameInstance(uni)));
+
+      withStudents.invoke(uni, Arrays.asList(carol, bob));
+      assertThat(uni, hasProperty("students", contains(alice, bob, carol)));
+
+      // moving elements in bulk removes them from the previous owner
+      withStudents.invoke(otherUni, Arrays.asList(bob, carol));
+      assertThat(uni, hasProperty("students", contains(alice)));
+      assertThat(otherUni, hasProperty("students", contains(bob, carol)));
+      assertThat(bob, hasProperty("uni", sameInstance(otherUni)));
+
+      // bulk without ignores elements that are not contained
+      final Method withoutStudents = uniClass.getMethod("withoutStudents", Collection.class);
+      withoutStudents.invoke(otherUni, Arrays.asList(carol, alice));
+      assertThat(otherUni, hasProperty("students", contains(bob)));
+      assertThat(carol, hasProperty("uni", nullValue()));
+      assertThat(alice, hasProperty("uni", sameInstance(uni)));
+
+      // LinkedHashSet role
+      final Object wa1337 = roomClass.newInstance();
+      final Object wa1342 = roomClass.newInstance();
+      final Method withRooms = uniClass.getMethod("withRooms", Collection.class);
+      withRooms.invoke(uni, Arrays.asList(wa1342, wa1337, wa1342));
+      assertThat(uni, hasProperty("rooms", contains(wa1342, wa1337)));
+
+      uniClass.getMethod("withoutRooms", Collection.class).invoke(uni, Arrays.asList(wa1337, wa1342));
+      assertThat(uni, hasProperty("rooms", is(empty())));
+      assertThat(wa1337, hasProperty("uni", nullValue()));
+
+      // n to m
+      final Method withStudents4Room = roomClass.getMethod("withStudents", Collection.class);
+      withStudents4Room.invoke(wa1337, Arrays.asList(alice, bob, carol));
+      assertThat(bob, hasProperty("in", contains(wa1337)));
+
+      roomClass.getMethod("withoutStudents", Collection.class).invoke(wa1337, Arrays.asList(alice, carol));
+      assertThat(wa1337, hasProperty("students", contains(bob)));
+      assertThat(alice, hasProperty("in", is(empty())));
+      assertThat(carol, hasProperty("in", is(empty())));
+
+      // detaching many elements clears their inverse links without searching the role again for each of them
+      final int count = 200_000;
+      final Object bigUni = uniClass.newInstance();
+      final List<Object> students = new ArrayList<>(count);
+      final List<Object> detached = new ArrayList<>(count / 2);
+      for (int i = 0; i < count; i++)
+      {
+         final Object student = studClass.newInstance();
+         students.add(student);
+         if (i % 2 == 0)
+         {
+            detached.add(student);
+         }
+      }
+      withStudents.invoke(bigUni, students);
+
+      assertTimeout(Duration.ofSeconds(5), () -> withoutStudents.invoke(bigUni, detached));
+      assertThat(((Collection<?>) uniClass.getMethod("getStudents").invoke(bigUni)).size(), is(count / 2));
+      assertThat(detached.get(0), hasProperty("uni", nullValue()));
+      assertThat(students.get(1), hasProperty("uni", sameInstance(bigUni)));
+   }
+}
@@ -0,0 +1,199 @@
+package org.fulib.generator;
+
+import org.fulib.Fulib;
+import org.fulib.Tools;
+import org.fulib.builder.AssociationBuilder;
+import org.fulib.builder.ClassBuilder;
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.ClassModelManager;
+import org.fulib.builder.Type;
+import org.fulib.classmodel.AssocRole;
+import org.fulib.classmodel.Attribute;
+import org.fulib.classmodel.ClassModel;
+import org.fulib.classmodel.Clazz;
+import org.fulib.classmodel.CollectionType;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PrimitiveArrayAttributeTest
+{
+   protected String getTargetFolder()
+   {
+      return "tmp/primitive-arrays";
+   }
+
+   protected void configureModel(ClassModelBuilder mb)
+   {
+      mb.setDefaultPropertyStyle(Type.POJO);
+   }
+
+   @Test
+   public void testPrimitiveArrays() throws Exception
+   {
+      final String testFolder = this.getTargetFolder();
+      final String sourceFolder = testFolder + "/src";
+      final String outFolder = testFolder + "/out";
+      final String packageName = "org.testPrimitiveArrays";
+
+      Tools.removeDirAndFiles(testFolder);
+
+      final ClassModelBuilder mb = Fulib.classModelBuilder(packageName, sourceFolder);
+      this.configureModel(mb);
+
+      final ClassBuilder sensor = mb.buildClass("Sensor");
+      sensor.buildAttribute("readings", Type.INT, CollectionType.PrimitiveArray, null);
+      sensor.buildAttribute("values", Type.DOUBLE, CollectionType.PrimitiveArray, null);
+
+      final ClassModel model = mb.getClassModel();
+      Fulib.generator().generate(model);
+
+      int returnCode = Tools.javac(outFolder, model.getPackageSrcFolder());
+      assertThat("compiler return code: ", returnCode, is(0));
+
+      try (final URLClassLoader classLoader = URLClassLoader
+         .newInstance(new URL[] { new File(outFolder).toURI().toURL() }))
+      {
+         this.runDataTests(classLoader, packageName);
+      }
+
+      // change to a boxed multi attribute and back
+      final Attribute readings = model.getClazz("Sensor").getAttribute("readings");
+      readings.setCollectionType(CollectionType.ArrayList);
+
+      Fulib.generator().generate(model);
+
+      returnCode = Tools.javac(outFolder, model.getPackageSrcFolder());
+      assertThat("compiler return code: ", returnCode, is(0));
+
+      readings.setCollectionType(CollectionType.PrimitiveArray);
+
+      Fulib.generator().generate(model);
+
+      returnCode = Tools.javac(outFolder, model.getPackageSrcFolder());
+      assertThat("compiler return code: ", returnCode, is(0));
+   }
+
+   protected void runDataTests(ClassLoader classLoader, String packageName) throws Exception
+   {
+      final Class<?> sensorClass = Class.forName(packageName + ".Sensor", true, classLoader);
+      final Method getReadings = sensorClass.getMethod("getReadings");
+      final Method getReading = sensorClass.getMethod("getReadings", int.class);
+      final Method sizeOfReadings = sensorClass.getMethod("sizeOfReadings");
+      final Method withReading = sensorClass.getMethod("withReadings", int.class);
+      final Method withReadings = sensorClass.getMethod("withReadings", int[].class);
+      final Method withoutReading = sensorClass.getMethod("withoutReadings", int.class);
+      final Method withoutReadings = sensorClass.getMethod("withoutReadings", int[].class);
+
+      final Object sensor = sensorClass.newInstance();
+      assertThat(getReadings.invoke(sensor), is(new int[0]));
+      assertThat(sizeOfReadings.invoke(sensor), is(0));
+
+      assertThat(withReading.invoke(sensor, 3), is(sameInstance(sensor)));
+      withReadings.invoke(sensor, new int[] { 1, 4, 1, 5, 9, 2, 6 });
+      assertThat(getReadings.invoke(sensor), is(new int[] { 3, 1, 4, 1, 5, 9, 2, 6 }));
+      assertThat(sizeOfReadings.invoke(sensor), is(8));
+      assertThat(getReading.invoke(sensor, 4), is(5));
+
+      // the getter returns a copy
+      ((int[]) getReadings.invoke(sensor))[0] = 42;
+      assertThat(getReading.invoke(sensor, 0), is(3));
+
+      // without removes all occurrences
+      withoutReading.invoke(sensor, 1);
+      assertThat(getReadings.invoke(sensor), is(new int[] { 3, 4, 5, 9, 2, 6 }));
+
+      withoutReadings.invoke(sensor, new int[] { 9, 42, 3 });
+      assertThat(getReadings.invoke(sensor), is(new int[] { 4, 5, 2, 6 }));
+
+      final InvocationTargetException ex = assertThrows(InvocationTargetException.class,
+                                                        () -> getReading.invoke(sensor, 4));
+      assertThat(ex.getCause(), instanceOf(IndexOutOfBoundsException.class));
+
+      // doubles are compared like their boxed counterparts
+      final Method getValues = sensorClass.getMethod("getValues");
+      final Method withValues = sensorClass.getMethod("withValues", double[].class);
+      final Method withoutValue = sensorClass.getMethod("withoutValues", double.class);
+
+      withValues.invoke(sensor, new double[] { Double.NaN, 0.0, -0.0, 1.5 });
+      withoutValue.invoke(sensor, Double.NaN);
+      withoutValue.invoke(sensor, -0.0);
+      assertThat(getValues.invoke(sensor), is(new double[] { 0.0, 1.5 }));
+   }
+
+   @Test
+   public void testNonPrimitiveElementType()
+   {
+      final ClassModelBuilder mb = Fulib.classModelBuilder("org.testPrimitiveArrays", "tmp/primitive-arrays/src");
+      final ClassBuilder sensor = mb.buildClass("Sensor");
+
+      assertThrows(IllegalArgumentException.class,
+                   () -> sensor.buildAttribute("names", Type.STRING, CollectionType.PrimitiveArray, null));
+      assertThat(sensor.getClazz().getAttribute("names"), nullValue());
+
+      final ClassModelManager mm = new ClassModelManager();
+      final Clazz station = mm.haveClass("Station");
+      final Attribute names = mm.haveAttribute(station, "names", Type.STRING);
+      assertThrows(IllegalArgumentException.class, () -> names.setCollectionType(CollectionType.PrimitiveArray));
+      assertThat(names.getCollectionType(), nullValue());
+
+      // changing the element type of an existing array attribute is checked as well
+      final Attribute readings = mm.haveAttribute(station, "readings", Type.INT);
+      readings.setCollectionType(CollectionType.PrimitiveArray);
+      assertThrows(IllegalArgumentException.class, () -> mm.haveAttribute(station, "readings", Type.STRING));
+      assertThat(readings.getType(), is(Type.INT));
+   }
+
+   @Test
+   public void testInitialValue()
+   {
+      final ClassModelBuilder mb = Fulib.classModelBuilder("org.testPrimitiveArrays", "tmp/primitive-arrays/src");
+      final ClassBuilder sensor = mb.buildClass("Sensor");
+
+      assertThrows(IllegalArgumentException.class,
+                   () -> sensor.buildAttribute("readings", Type.INT, CollectionType.PrimitiveArray, "42"));
+      assertThat(sensor.getClazz().getAttribute("readings"), nullValue());
+
+      sensor.buildAttribute("readings", Type.INT, CollectionType.PrimitiveArray, null);
+      final Attribute readings = sensor.getClazz().getAttribute("readings");
+      assertThrows(IllegalArgumentException.class, () -> readings.setInitialization("42"));
+      assertThat(readings.getInitialization(), nullValue());
+
+      final ClassModelManager mm = new ClassModelManager();
+      final Clazz station = mm.haveClass("Station");
+      final Attribute values = mm.haveAttribute(station, "values", Type.DOUBLE, "1.0");
+      assertThrows(IllegalArgumentException.class, () -> values.setCollectionType(CollectionType.PrimitiveArray));
+   }
+
+   @Test
+   public void testRoles()
+   {
+      final ClassModelBuilder mb = Fulib.classModelBuilder("org.testPrimitiveArrays", "tmp/primitive-arrays/src");
+      final ClassBuilder sensor = mb.buildClass("Sensor");
+      final ClassBuilder station = mb.buildClass("Station");
+
+      assertThrows(IllegalArgumentException.class, () -> mb.setDefaultCollectionType(CollectionType.PrimitiveArray));
+      assertThat(mb.getClassModel().getDefaultCollectionType(), is(CollectionType.ArrayList));
+
+      final AssociationBuilder association = station.buildAssociation(sensor, "sensors", Type.MANY, "stations",
+                                                                      Type.MANY);
+      assertThrows(IllegalArgumentException.class,
+                   () -> association.setSourceRoleCollection(CollectionType.PrimitiveArray));
+      assertThrows(IllegalArgumentException.class,
+                   () -> association.setTargetRoleCollection(CollectionType.PrimitiveArray));
+      assertThat(station.getClazz().getRole("sensors").getCollectionType(), is(CollectionType.ArrayList));
+
+      final ClassModelManager mm = new ClassModelManager();
+      final AssocRole role = mm.associate(mm.haveClass("Station"), "sensors", Type.MANY, mm.haveClass("Sensor"),
+                                          "station", Type.ONE);
+      assertThrows(IllegalArgumentException.class, () -> role.setCollectionType(CollectionType.PrimitiveArray));
+   }
+}
@@ -0,0 +1,66 @@
+package org.fulib.generator;
+
+import org.fulib.Fulib;
+import org.fulib.Generator;
+import org.fulib.Tools;
+import org.fulib.builder.ClassBuilder;
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.Type;
+import org.fulib.classmodel.ClassModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SkipUnchangedFilesTest
+{
+   @Test
+   void testSkipUnchangedFiles() throws IOException
+   {
+      final String targetFolder = "tmp/skip-unchanged";
+      final String srcFolder = targetFolder + "/src";
+
+      Tools.removeDirAndFiles(targetFolder);
+
+      final ClassModelBuilder mb = Fulib.classModelBuilder("org.fulib.skip", srcFolder);
+      final ClassBuilder uni = mb.buildClass("University").buildAttribute("name", Type.STRING);
+      final ClassBuilder student = mb.buildClass("Student").buildAttribute("name", Type.STRING);
+      uni.buildAssociation(student, "students", Type.MANY, "uni", Type.ONE);
+      final ClassModel model = mb.getClassModel();
+
+      final Generator generator = Fulib.generator();
+      generator.setSkipUnchangedFiles(true);
+
+      generator.generate(model);
+      assertThat(generator.getWrittenFileCount(), equalTo(2));
+      assertThat(generator.getSkippedFileCount(), equalTo(0));
+
+      final Path uniFile = Paths.get(model.getPackageSrcFolder(), "University.java");
+      final Path studentFile = Paths.get(model.getPackageSrcFolder(), "Student.java");
+      final FileTime oldTime = FileTime.fromMillis(0);
+      Files.setLastModifiedTime(uniFile, oldTime);
+      Files.setLastModifiedTime(studentFile, oldTime);
+
+      // nothing changed
+      generator.generate(model);
+      assertThat(generator.getWrittenFileCount(), equalTo(0));
+      assertThat(generator.getSkippedFileCount(), equalTo(2));
+      assertThat(Files.getLastModifiedTime(uniFile), equalTo(oldTime));
+      assertThat(Files.getLastModifiedTime(studentFile), equalTo(oldTime));
+
+      // only the student changes
+      student.buildAttribute("studentId", Type.STRING);
+      generator.generate(model);
+      assertThat(generator.getWrittenFileCount(), equalTo(1));
+      assertThat(generator.getSkippedFileCount(), equalTo(1));
+      assertThat(Files.getLastModifiedTime(uniFile), equalTo(oldTime));
+      assertThat(Files.getLastModifiedTime(studentFile), not(equalTo(oldTime)));
+   }
+}
@@ -11,20 +11,22 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Collection;
-import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TablesTest
 {
@@ -213,6 +215,62 @@ public class TablesTest
       Object sum = intTableSum.invoke(pointsTable);
       assertThat(sum, equalTo(89));
 
+      // aggregates work on the unboxed column
+      assertThat(intTableClass.getMethod("count").invoke(pointsTable), equalTo(4));
+      assertThat(intTableClass.getMethod("average").invoke(pointsTable), equalTo(22.25));
+      assertThat(intTableClass.getMethod("max").invoke(pointsTable), equalTo(42));
+      assertThat(intTableClass.getMethod("median").invoke(pointsTable), equalTo(23));
+      assertThat(intTableClass.getMethod("percentile", double.class).invoke(pointsTable, 50.0), equalTo(12));
+      final int[] histogram = (int[]) intTableClass.getMethod("histogram", int.class, int.class, int.class)
+                                                   .invoke(pointsTable, 0, 50, 5);
+      assertThat(histogram, equalTo(new int[] { 0, 2, 1, 0, 1 }));
+
+      // empty and all-negative tables
+      final Class<?> doubleTableClass = Class.forName(packageName + ".tables.doubleTable", true, classLoader);
+      final Object emptyDoubles = doubleTableClass.getConstructor(double[].class).newInstance((Object) new double[0]);
+      assertThat(doubleTableClass.getMethod("count").invoke(emptyDoubles), equalTo(0));
+      assertThat(doubleTableClass.getMethod("average").invoke(emptyDoubles), equalTo(Double.NaN));
+      assertThat(doubleTableClass.getMethod("min").invoke(emptyDoubles), equalTo(Double.POSITIVE_INFINITY));
+      assertThat(doubleTableClass.getMethod("max").invoke(emptyDoubles), equalTo(Double.NEGATIVE_INFINITY));
+
+      final Object emptyInts = intTableClass.getConstructor(int[].class).newInstance((Object) new int[0]);
+      assertThat(intTableClass.getMethod("average").invoke(emptyInts), equalTo(Double.NaN));
+      assertThat(intTableClass.getMethod("min").invoke(emptyInts), equalTo(Integer.MAX_VALUE));
+      assertThat(intTableClass.getMethod("max").invoke(emptyInts), equalTo(Integer.MIN_VALUE));
+
+      final Object negativeDoubles = doubleTableClass.getConstructor(double[].class)
+                                                     .newInstance((Object) new double[] { -3.5, -1.25, -8.0 });
+      assertThat(doubleTableClass.getMethod("min").invoke(negativeDoubles), equalTo(-8.0));
+      assertThat(doubleTableClass.getMethod("max").invoke(negativeDoubles), equalTo(-1.25));
+      assertThat(doubleTableClass.getMethod("average").invoke(negativeDoubles), equalTo(-4.25));
+
+      final Object negativeInts = intTableClass.getConstructor(int[].class)
+                                               .newInstance((Object) new int[] { -5, -2, -11 });
+      assertThat(intTableClass.getMethod("min").invoke(negativeInts), equalTo(-11));
+      assertThat(intTableClass.getMethod("max").invoke(negativeInts), equalTo(-2));
+      assertThat(intTableClass.getMethod("average").invoke(negativeInts), equalTo(-6.0));
+
+      // NaN is the greatest value for min, max, median and percentile, and never counted by histogram
+      final Object nanDoubles = doubleTableClass.getConstructor(double[].class).newInstance(
+         (Object) new double[] { 3.0, Double.NaN, -0.0, 0.0, 1.0, Double.NaN });
+      assertThat(doubleTableClass.getMethod("min").invoke(nanDoubles), equalTo(-0.0));
+      assertThat(doubleTableClass.getMethod("max").invoke(nanDoubles), equalTo(Double.NaN));
+      assertThat(doubleTableClass.getMethod("median").invoke(nanDoubles), equalTo(3.0));
+      assertThat(doubleTableClass.getMethod("percentile", double.class).invoke(nanDoubles, 100.0),
+                 equalTo(Double.NaN));
+      final Method doubleHistogram = doubleTableClass.getMethod("histogram", double.class, double.class, int.class);
+      assertThat(doubleHistogram.invoke(nanDoubles, 0.0, 3.0, 3), equalTo(new int[] { 2, 1, 1 }));
+
+      final Object allNaN = doubleTableClass.getConstructor(double[].class)
+                                            .newInstance((Object) new double[] { Double.NaN, Double.NaN });
+      assertThat(doubleTableClass.getMethod("min").invoke(allNaN), equalTo(Double.NaN));
+
+      final Method countsHistogram = doubleTableClass.getMethod("histogram", double.class, double.class, int[].class);
+      final int[] noCounts = new int[0];
+      final InvocationTargetException noBins = assertThrows(
+         InvocationTargetException.class, () -> countsHistogram.invoke(nanDoubles, 0.0, 3.0, noCounts));
+      assertThat(noBins.getCause(), instanceOf(IllegalArgumentException.class));
+
       Object studentsTable = roomsExpandStudents.invoke(roomsTable, "Students");
       assertThat(studentsTable.toString(), containsString("Alice"));
 
@@ -242,7 +300,7 @@ public class TablesTest
       Predicate<Object> rowPredicate = o -> {
          try
          {
-            LinkedHashMap<String, Object> row = (LinkedHashMap<String, Object>) o;
+            Map<String, Object> row = (Map<String, Object>) o;
             Object stud = row.get("Students");
             Object assign = row.get("Assignments");
             Collection<?> doneSet = (Collection<?>) studentGetDone.invoke(stud);
@@ -268,6 +326,31 @@ public class TablesTest
       studentTablehasDone.invoke(studentsTable, assignmentsTable);
       assertThat(assignmentsTable.toString(), containsString("Alice m4242 \t| wa1337 Math \t| integrals"));
       assertThat(assignmentsTable.toString(), not(containsString("Alice m4242 \t| wa1337 Math \t| matrices")));
+      final String hasDoneResult = assignmentsTable.toString();
+
+      // lazy evaluation
+      uniTable = declaredConstructors.newInstance(uniArray);
+      final Object store = uniTableClass.getMethod("getStore").invoke(uniTable);
+      store.getClass().getMethod("setLazy", boolean.class).invoke(store, true);
+      studentsTable = uniExpandStudents.invoke(uniTable, "Students");
+      roomsTable = uniExpandRooms.invoke(uniTable, "Rooms");
+      assignmentsTable = roomsExpandAssignments.invoke(roomsTable, "Assignments");
+
+      studentTablehasDone.invoke(studentsTable, assignmentsTable);
+      assertThat(assignmentsTable.toString(), equalTo(hasDoneResult));
+      assertThat(store.getClass().getMethod("isLazy").invoke(store), equalTo(true));
+
+      // parallel evaluation, splitting even this small table
+      uniTable = declaredConstructors.newInstance(uniArray);
+      final Object parallelStore = uniTableClass.getMethod("getStore").invoke(uniTable);
+      parallelStore.getClass().getMethod("setParallel", boolean.class).invoke(parallelStore, true);
+      parallelStore.getClass().getMethod("setParallelThreshold", int.class).invoke(parallelStore, 1);
+      studentsTable = uniExpandStudents.invoke(uniTable, "Students");
+      roomsTable = uniExpandRooms.invoke(uniTable, "Rooms");
+      assignmentsTable = roomsExpandAssignments.invoke(roomsTable, "Assignments");
+
+      studentTablehasDone.invoke(studentsTable, assignmentsTable);
+      assertThat(assignmentsTable.toString(), equalTo(hasDoneResult));
 
       // select columns
       uniTable = declaredConstructors.newInstance(uniArray);
@@ -293,7 +376,7 @@ public class TablesTest
       uniTable = declaredConstructors.newInstance(uniArray);
       studentsTable = uniExpandStudents.invoke(uniTable, "Students");
 
-      Function<LinkedHashMap<String, Object>, Object> function = row -> {
+      Function<Map<String, Object>, Object> function = row -> {
          Object student = row.get("Students");
          return 42;
       };
@@ -301,5 +384,10 @@ public class TablesTest
       studentTableAddColumn.invoke(studentsTable, "Credits", function);
       assertThat(studentsTable.toString(), containsString("Credits"));
       assertThat(studentsTable.toString(), containsString("42"));
+
+      // primitive attributes are stored unboxed
+      final Method intTableGetColumn = intTableClass.getMethod("getColumn");
+      assertThat(intTableGetColumn.getReturnType().getSimpleName(), equalTo("IntColumn"));
+      assertThat(intTableGetColumn.invoke(pointsTable), notNullValue());
    }
 }
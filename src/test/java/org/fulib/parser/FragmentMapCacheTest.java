@@ -0,0 +1,131 @@
+package org.fulib.parser;
+
+import org.fulib.Tools;
+import org.fulib.classmodel.CodeFragment;
+import org.fulib.classmodel.CompoundFragment;
+import org.fulib.classmodel.FileFragmentMap;
+import org.fulib.classmodel.Fragment;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FragmentMapCacheTest
+{
+   private static final String[] CLASS_NAMES = {
+      "AllInOneJava7",
+      "AllInOneJava8",
+      "IdentifierTest",
+      "TryWithResourceDemo",
+   };
+
+   @Test
+   void restoresSameFragmentTree() throws IOException
+   {
+      final String targetFolder = "tmp/parse-cache";
+      Tools.removeDirAndFiles(targetFolder);
+      final Path srcFolder = Paths.get(targetFolder, "src");
+      Files.createDirectories(srcFolder);
+
+      final FragmentMapCache cache = new FragmentMapCache(Paths.get(targetFolder, "cache"));
+
+      for (final String className : CLASS_NAMES)
+      {
+         final Path file = srcFolder.resolve(className + ".java");
+         try (final InputStream inputStream = this.getClass().getResourceAsStream(className + ".java"))
+         {
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+         }
+
+         final FileFragmentMap parsed = FragmentMapBuilder.parse(file.toString());
+         final FileFragmentMap first = cache.parse(file.toString());
+         final FileFragmentMap restored = cache.parse(file.toString());
+
+         assertThat(structure(first), equalTo(structure(parsed)));
+         assertThat(structure(restored), equalTo(structure(parsed)));
+         assertThat(restored.toString(), equalTo(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)));
+
+         // generating into the restored map behaves exactly like generating into a parsed map
+         final String key = "class/" + className + "/method/cacheTest()";
+         parsed.add(key, "void cacheTest() {}", 2);
+         restored.add(key, "void cacheTest() {}", 2);
+         assertThat(restored.toString(), equalTo(parsed.toString()));
+      }
+
+      assertThat(cache.getMissCount(), equalTo(CLASS_NAMES.length));
+      assertThat(cache.getHitCount(), equalTo(CLASS_NAMES.length));
+
+      // changed content is parsed again
+      final Path file = srcFolder.resolve("IdentifierTest.java");
+      final String changed = new String(Files.readAllBytes(file), StandardCharsets.UTF_8) + "\n// changed\n";
+      Files.write(file, changed.getBytes(StandardCharsets.UTF_8));
+      assertThat(cache.parse(file.toString()).toString(), equalTo(changed));
+      assertThat(cache.getMissCount(), equalTo(CLASS_NAMES.length + 1));
+   }
+
+   @Test
+   void evictsLeastRecentlyUsedEntries() throws IOException
+   {
+      final String targetFolder = "tmp/parse-cache-eviction";
+      Tools.removeDirAndFiles(targetFolder);
+      final Path srcFolder = Paths.get(targetFolder, "src");
+      Files.createDirectories(srcFolder);
+
+      // small enough for a single entry
+      final Path cacheFolder = Paths.get(targetFolder, "cache");
+      final FragmentMapCache cache = new FragmentMapCache(cacheFolder, 1024);
+
+      for (int i = 0; i < 5; i++)
+      {
+         final Path file = srcFolder.resolve("Foo" + i + ".java");
+         Files.write(file, ("class Foo" + i + " {\n   int i;\n}\n").getBytes(StandardCharsets.UTF_8));
+         cache.parse(file.toString());
+      }
+
+      try (final Stream<Path> entries = Files.list(cacheFolder))
+      {
+         final List<Path> list = entries.collect(Collectors.toList());
+         long totalSize = 0;
+         for (final Path entry : list)
+         {
+            totalSize += Files.size(entry);
+         }
+         assertThat(totalSize, lessThanOrEqualTo(1024L));
+         assertThat(list, not(empty()));
+      }
+
+      cache.clear();
+      try (final Stream<Path> entries = Files.list(cacheFolder))
+      {
+         assertThat(entries.count(), equalTo(0L));
+      }
+   }
+
+   private static List<String> structure(FileFragmentMap map)
+   {
+      return map.codeFragments().map(FragmentMapCacheTest::path).collect(Collectors.toList());
+   }
+
+   private static String path(CodeFragment fragment)
+   {
+      final StringBuilder builder = new StringBuilder(fragment.getKey()).append(" = ").append(fragment.getText());
+      for (Fragment child = fragment; child.getParent() != null; child = child.getParent())
+      {
+         final CompoundFragment parent = child.getParent();
+         builder.append(" <- ").append(parent.getKey()).append('[').append(parent.getChildren().indexOf(child))
+                .append(']');
+      }
+      return builder.toString();
+   }
+}
@@ -6,6 +6,11 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.io.InputStream;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 public class FragmentParserTest
 {
    private static final String[] CLASS_NAMES = {
@@ -27,4 +32,20 @@ public class FragmentParserTest
          }
       }
    }
+
+   @Test
+   public void syntaxErrors()
+   {
+      // language=JAVA
+      final String input = "class Broken {\n" + "   int i\n" + "}\n";
+      final IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                                                       () -> FragmentMapBuilder.parse("Broken.java",
+                                                                                      CharStreams.fromString(input,
+                                                                                                             "Broken.java")));
+
+      // errors are reported once, by the full LL stage
+      final String message = ex.getMessage();
+      assertThat(message, containsString("Broken.java:3:"));
+      assertThat(message.indexOf("syntax: "), equalTo(message.lastIndexOf("syntax: ")));
+   }
 }
@@ -0,0 +1,160 @@
+package org.fulib.util;
+
+import org.fulib.Fulib;
+import org.fulib.Generator;
+import org.fulib.Tools;
+import org.fulib.builder.ClassBuilder;
+import org.fulib.builder.ClassModelBuilder;
+import org.fulib.builder.Type;
+import org.fulib.classmodel.ClassModel;
+import org.fulib.parser.FragmentMapCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+
+public class FlightRecorderEventsTest
+{
+   private static final String[] EVENT_NAMES = {
+      "org.fulib.Parse", "org.fulib.Render", "org.fulib.Write", "org.fulib.LoadModel", "org.fulib.SaveModel",
+   };
+
+   private static final String[] FIELD_NAMES = {
+      "fileName", "className", "fragmentCount", "cached", "template", "written", "classCount",
+   };
+
+   @Test
+   void testNotRecording()
+   {
+      // no recording is running during tests, so no event must be created
+      assertThat(FlightRecorderEvents.PARSE.begin(), nullValue());
+      assertThat(FlightRecorderEvents.WRITE.begin(), nullValue());
+
+      // committing a missing event does nothing
+      FlightRecorderEvents.RENDER.commit(null, "Foo.java", "Foo", "attrGet");
+   }
+
+   // jdk.jfr is only used reflectively, because the tests are compiled for Java 8
+   @Test
+   @EnabledForJreRange(min = JRE.JAVA_11)
+   void testRecording() throws Exception
+   {
+      final String targetFolder = "tmp/flight-recorder";
+      final String srcFolder = targetFolder + "/src";
+
+      Tools.removeDirAndFiles(targetFolder);
+
+      final ClassModelBuilder mb = Fulib.classModelBuilder("org.fulib.jfr", srcFolder);
+      final ClassBuilder uni = mb.buildClass("University").buildAttribute("name", Type.STRING);
+      final ClassBuilder student = mb.buildClass("Student").buildAttribute("name", Type.STRING);
+      uni.buildAssociation(student, "students", Type.MANY, "uni", Type.ONE);
+      final ClassModel model = mb.getClassModel();
+
+      final Generator generator = Fulib.generator().setSkipUnchangedFiles(true)
+                                       .setParseCache(new FragmentMapCache(Paths.get(targetFolder, "parse-cache")));
+
+      // the first run creates the files, so the recorded runs load the model and parse them
+      generator.generate(model);
+
+      final Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+      final Object recording = recordingClass.getConstructor().newInstance();
+      for (final String eventName : EVENT_NAMES)
+      {
+         recordingClass.getMethod("enable", String.class).invoke(recording, eventName);
+      }
+      recordingClass.getMethod("start").invoke(recording);
+
+      // the second run parses the files and fills the cache, the third one restores them from it
+      generator.generate(model);
+      generator.generate(model);
+
+      recordingClass.getMethod("stop").invoke(recording);
+      final Path file = Paths.get(targetFolder, "recording.jfr");
+      recordingClass.getMethod("dump", Path.class).invoke(recording, file);
+      recordingClass.getMethod("close").invoke(recording);
+
+      final List<Map<String, Object>> events = readEvents(file);
+      final String uniFile = model.getPackageSrcFolder() + "/University.java";
+
+      final List<Map<String, Object>> parses = filter(events, "org.fulib.Parse", uniFile);
+      assertThat(parses, hasSize(2));
+      assertThat(parses.get(0).get("className"), is("University"));
+      assertThat(parses.get(0).get("cached"), is(false));
+      assertThat(parses.get(1).get("className"), is("University"));
+      assertThat(parses.get(1).get("cached"), is(true));
+      assertThat(parses.get(1).get("fragmentCount"), equalTo(parses.get(0).get("fragmentCount")));
+      assertThat((Integer) parses.get(0).get("fragmentCount"), greaterThan(0));
+
+      final List<Map<String, Object>> renders = filter(events, "org.fulib.Render", uniFile);
+      assertThat(renders.get(0).get("className"), is("University"));
+      assertThat(renders.stream().map(event -> event.get("template")).collect(Collectors.toList()),
+                 hasItem("attrGet"));
+
+      final List<Map<String, Object>> writes = filter(events, "org.fulib.Write", uniFile);
+      assertThat(writes, hasSize(2));
+      assertThat(writes.get(0).get("className"), is("University"));
+      assertThat((Integer) writes.get(0).get("fragmentCount"), greaterThan(0));
+      // nothing changed since the first run
+      assertThat(writes.get(0).get("written"), is(false));
+
+      final String modelFile = model.getPackageSrcFolder() + "/classModel.yaml";
+      for (final String eventName : new String[] { "org.fulib.LoadModel", "org.fulib.SaveModel" })
+      {
+         final List<Map<String, Object>> modelEvents = filter(events, eventName, modelFile);
+         assertThat(modelEvents, hasSize(2));
+         assertThat(modelEvents.get(0).get("classCount"), is(2));
+      }
+   }
+
+   private static List<Map<String, Object>> readEvents(Path file) throws ReflectiveOperationException
+   {
+      final List<?> recordedEvents = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+                                                    .getMethod("readAllEvents", Path.class)
+                                                    .invoke(null, file);
+      final Class<?> eventClass = Class.forName("jdk.jfr.consumer.RecordedEvent");
+      final Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType");
+
+      final List<Map<String, Object>> result = new ArrayList<>();
+      for (final Object recordedEvent : recordedEvents)
+      {
+         final Object eventType = eventClass.getMethod("getEventType").invoke(recordedEvent);
+         final Map<String, Object> event = new LinkedHashMap<>();
+         event.put("name", eventTypeClass.getMethod("getName").invoke(eventType));
+         event.put("endTime", eventClass.getMethod("getEndTime").invoke(recordedEvent));
+         for (final String fieldName : FIELD_NAMES)
+         {
+            if ((boolean) eventClass.getMethod("hasField", String.class).invoke(recordedEvent, fieldName))
+            {
+               event.put(fieldName, eventClass.getMethod("getValue", String.class).invoke(recordedEvent, fieldName));
+            }
+         }
+         result.add(event);
+      }
+
+      // events are written in chunks per thread, so restore the order in which they ended
+      result.sort(Comparator.comparing(event -> (Instant) event.get("endTime")));
+      return result;
+   }
+
+   private static List<Map<String, Object>> filter(List<Map<String, Object>> events, String name, String fileName)
+   {
+      return events
+         .stream()
+         .filter(event -> name.equals(event.get("name")) && fileName.equals(event.get("fileName")))
+         .collect(Collectors.toList());
+   }
+}
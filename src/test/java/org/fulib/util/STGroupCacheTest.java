@@ -0,0 +1,77 @@
+package org.fulib.util;
+
+import org.junit.jupiter.api.Test;
+import org.stringtemplate.v4.STGroup;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class STGroupCacheTest
+{
+   private static final String TEMPLATE_FILE = "org/fulib/templates/attributes.pojo.stg";
+   private static final String CUSTOM_FILE = "templates/custom.stg";
+
+   @Test
+   void sharedAcrossGenerators()
+   {
+      final STGroup first = new Generator4ClassFile().getSTGroup(TEMPLATE_FILE);
+      final STGroup second = new Generator4ClassFile().getSTGroup(TEMPLATE_FILE);
+      assertThat(second, sameInstance(first));
+
+      final STGroup custom = new Generator4ClassFile().setCustomTemplatesFile(CUSTOM_FILE).getSTGroup(TEMPLATE_FILE);
+      assertThat(custom, not(sameInstance(first)));
+      assertThat(custom.getInstanceOf("attrDecl").impl.template, containsString("custom attribute comment"));
+      // templates not overridden come from the original file
+      assertThat(custom.getInstanceOf("attrGet"), notNullValue());
+   }
+
+   @Test
+   void invalidate()
+   {
+      final STGroup plain = STGroupCache.getSTGroup(TEMPLATE_FILE, null);
+      final STGroup custom = STGroupCache.getSTGroup(TEMPLATE_FILE, CUSTOM_FILE);
+
+      STGroupCache.invalidate(CUSTOM_FILE);
+      assertThat(STGroupCache.getSTGroup(TEMPLATE_FILE, null), sameInstance(plain));
+      assertThat(STGroupCache.getSTGroup(TEMPLATE_FILE, CUSTOM_FILE), not(sameInstance(custom)));
+
+      STGroupCache.invalidate();
+      assertThat(STGroupCache.getSTGroup(TEMPLATE_FILE, null), not(sameInstance(plain)));
+   }
+
+   @Test
+   void concurrentAccess() throws Exception
+   {
+      STGroupCache.invalidate();
+
+      final int threads = 8;
+      final ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try
+      {
+         final CountDownLatch start = new CountDownLatch(1);
+         final List<Future<String>> results = new CopyOnWriteArrayList<>();
+         for (int i = 0; i < threads * 4; i++)
+         {
+            results.add(executor.submit(() -> {
+               start.await();
+               final STGroup group = new Generator4ClassFile().getSTGroup(TEMPLATE_FILE);
+               return System.identityHashCode(group) + ":" + group.getInstanceOf("attrDecl").impl.name;
+            }));
+         }
+         start.countDown();
+
+         final String expected = results.get(0).get();
+         for (final Future<String> result : results)
+         {
+            assertThat(result.get(), is(expected));
+         }
+      }
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+}
@@ -5,8 +5,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 public class Room
 {
    public static final String PROPERTY_ROOMNO = "roomNo";
@@ -130,7 +132,7 @@ public class Room
       {
          this.students = new ArrayList<>();
       }
-      if (!this.students.contains(value))
+      if (this.students.lastIndexOf(value) < 0)
       {
          this.students.add(value);
          value.setIn(this);
@@ -141,18 +143,28 @@ public class Room
 
    public Room withStudents(Student... value)
    {
-      for (final Student item : value)
-      {
-         this.withStudents(item);
-      }
-      return this;
+      return this.withStudents(Arrays.asList(value));
    }
 
    public Room withStudents(Collection<? extends Student> value)
    {
+      if (value.isEmpty())
+      {
+         return this;
+      }
+      if (this.students == null)
+      {
+         this.students = new ArrayList<>(value.size());
+      }
+      final Set<Student> present = new HashSet<>(this.students);
       for (final Student item : value)
       {
-         this.withStudents(item);
+         if (present.add(item))
+         {
+            this.students.add(item);
+            item.setIn(this);
+            this.firePropertyChange(PROPERTY_STUDENTS, null, item);
+         }
       }
       return this;
    }
@@ -169,18 +181,34 @@ public class Room
 
    public Room withoutStudents(Student... value)
    {
-      for (final Student item : value)
-      {
-         this.withoutStudents(item);
-      }
-      return this;
+      return this.withoutStudents(Arrays.asList(value));
    }
 
    public Room withoutStudents(Collection<? extends Student> value)
    {
-      for (final Student item : value)
+      if (this.students == null || value.isEmpty())
+      {
+         return this;
+      }
+      final List<Student> removed = new ArrayList<>();
+      final Set<Object> toRemove = new HashSet<>(value);
+      this.students.removeIf(item -> toRemove.contains(item) && removed.add(item));
+      final List<Student> remaining = this.students;
+      this.students = null;
+      try
+      {
+         for (final Student item : removed)
+         {
+            item.setIn(null);
+         }
+      }
+      finally
+      {
+         this.students = remaining;
+      }
+      for (final Student item : removed)
       {
-         this.withoutStudents(item);
+         this.firePropertyChange(PROPERTY_STUDENTS, item, null);
       }
       return this;
    }
@@ -5,8 +5,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 public class University
 {
    public static final String PROPERTY_STUDENTS = "students";
@@ -56,7 +58,7 @@ public class University
       {
          this.students = new ArrayList<>();
       }
-      if (!this.students.contains(value))
+      if (this.students.lastIndexOf(value) < 0)
       {
          this.students.add(value);
          value.setUni(this);
@@ -67,18 +69,28 @@ public class University
 
    public University withStudents(Student... value)
    {
-      for (final Student item : value)
-      {
-         this.withStudents(item);
-      }
-      return this;
+      return this.withStudents(Arrays.asList(value));
    }
 
    public University withStudents(Collection<? extends Student> value)
    {
+      if (value.isEmpty())
+      {
+         return this;
+      }
+      if (this.students == null)
+      {
+         this.students = new ArrayList<>(value.size());
+      }
+      final Set<Student> present = new HashSet<>(this.students);
       for (final Student item : value)
       {
-         this.withStudents(item);
+         if (present.add(item))
+         {
+            this.students.add(item);
+            item.setUni(this);
+            this.firePropertyChange(PROPERTY_STUDENTS, null, item);
+         }
       }
       return this;
    }
@@ -95,18 +107,34 @@ public class University
 
    public University withoutStudents(Student... value)
    {
-      for (final Student item : value)
-      {
-         this.withoutStudents(item);
-      }
-      return this;
+      return this.withoutStudents(Arrays.asList(value));
    }
 
    public University withoutStudents(Collection<? extends Student> value)
    {
-      for (final Student item : value)
+      if (this.students == null || value.isEmpty())
+      {
+         return this;
+      }
+      final List<Student> removed = new ArrayList<>();
+      final Set<Object> toRemove = new HashSet<>(value);
+      this.students.removeIf(item -> toRemove.contains(item) && removed.add(item));
+      final List<Student> remaining = this.students;
+      this.students = null;
+      try
+      {
+         for (final Student item : removed)
+         {
+            item.setUni(null);
+         }
+      }
+      finally
+      {
+         this.students = remaining;
+      }
+      for (final Student item : removed)
       {
-         this.withoutStudents(item);
+         this.firePropertyChange(PROPERTY_STUDENTS, item, null);
       }
       return this;
    }
@@ -122,7 +150,7 @@ public class University
       {
          this.rooms = new ArrayList<>();
       }
-      if (!this.rooms.contains(value))
+      if (this.rooms.lastIndexOf(value) < 0)
       {
          this.rooms.add(value);
          value.setUni(this);
@@ -133,18 +161,28 @@ public class University
 
    public University withRooms(Room... value)
    {
-      for (final Room item : value)
-      {
-         this.withRooms(item);
-      }
-      return this;
+      return this.withRooms(Arrays.asList(value));
    }
 
    public University withRooms(Collection<? extends Room> value)
    {
+      if (value.isEmpty())
+      {
+         return this;
+      }
+      if (this.rooms == null)
+      {
+         this.rooms = new ArrayList<>(value.size());
+      }
+      final Set<Room> present = new HashSet<>(this.rooms);
       for (final Room item : value)
       {
-         this.withRooms(item);
+         if (present.add(item))
+         {
+            this.rooms.add(item);
+            item.setUni(this);
+            this.firePropertyChange(PROPERTY_ROOMS, null, item);
+         }
       }
       return this;
    }
@@ -161,18 +199,34 @@ public class University
 
    public University withoutRooms(Room... value)
    {
-      for (final Room item : value)
-      {
-         this.withoutRooms(item);
-      }
-      return this;
+      return this.withoutRooms(Arrays.asList(value));
    }
 
    public University withoutRooms(Collection<? extends Room> value)
    {
-      for (final Room item : value)
+      if (this.rooms == null || value.isEmpty())
+      {
+         return this;
+      }
+      final List<Room> removed = new ArrayList<>();
+      final Set<Object> toRemove = new HashSet<>(value);
+      this.rooms.removeIf(item -> toRemove.contains(item) && removed.add(item));
+      final List<Room> remaining = this.rooms;
+      this.rooms = null;
+      try
+      {
+         for (final Room item : removed)
+         {
+            item.setUni(null);
+         }
+      }
+      finally
+      {
+         this.rooms = remaining;
+      }
+      for (final Room item : removed)
       {
-         this.withoutRooms(item);
+         this.firePropertyChange(PROPERTY_ROOMS, item, null);
       }
       return this;
    }
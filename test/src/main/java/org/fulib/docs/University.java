@@ -3,6 +3,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Collections;
 import java.util.Collection;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.HashSet;
 
 // start_code_fragment: docs.University
 public class University
@@ -25,7 +28,7 @@ public class University
       {
          this.students = new ArrayList<>();
       }
-      if (!this.students.contains(value))
+      if (this.students.lastIndexOf(value) < 0)
       {
          this.students.add(value);
          value.setUni(this);
@@ -35,18 +38,27 @@ public class University
 
    public University withStudents(Student... value)
    {
-      for (final Student item : value)
-      {
-         this.withStudents(item);
-      }
-      return this;
+      return this.withStudents(Arrays.asList(value));
    }
 
    public University withStudents(Collection<? extends Student> value)
    {
+      if (value.isEmpty())
+      {
+         return this;
+      }
+      if (this.students == null)
+      {
+         this.students = new ArrayList<>(value.size());
+      }
+      final Set<Student> present = new HashSet<>(this.students);
       for (final Student item : value)
       {
-         this.withStudents(item);
+         if (present.add(item))
+         {
+            this.students.add(item);
+            item.setUni(this);
+         }
       }
       return this;
    }
@@ -62,18 +74,30 @@ public class University
 
    public University withoutStudents(Student... value)
    {
-      for (final Student item : value)
-      {
-         this.withoutStudents(item);
-      }
-      return this;
+      return this.withoutStudents(Arrays.asList(value));
    }
 
    public University withoutStudents(Collection<? extends Student> value)
    {
-      for (final Student item : value)
+      if (this.students == null || value.isEmpty())
+      {
+         return this;
+      }
+      final Set<Object> toRemove = new HashSet<>(value);
+      final List<Student> removed = new ArrayList<>();
+      this.students.removeIf(item -> toRemove.contains(item) && removed.add(item));
+      final List<Student> remaining = this.students;
+      this.students = null;
+      try
       {
-         this.withoutStudents(item);
+         for (final Student item : removed)
+         {
+            item.setUni(null);
+         }
+      }
+      finally
+      {
+         this.students = remaining;
       }
       return this;
    }
@@ -100,7 +124,7 @@ public class University
       {
          this.employees = new ArrayList<>();
       }
-      if (!this.employees.contains(value))
+      if (this.employees.lastIndexOf(value) < 0)
       {
          this.employees.add(value);
       }
@@ -109,18 +133,26 @@ public class University
 
    public University withEmployees(Person... value)
    {
-      for (final Person item : value)
-      {
-         this.withEmployees(item);
-      }
-      return this;
+      return this.withEmployees(Arrays.asList(value));
    }
 
    public University withEmployees(Collection<? extends Person> value)
    {
+      if (value.isEmpty())
+      {
+         return this;
+      }
+      if (this.employees == null)
+      {
+         this.employees = new ArrayList<>(value.size());
+      }
+      final Set<Person> present = new HashSet<>(this.employees);
       for (final Person item : value)
       {
-         this.withEmployees(item);
+         if (present.add(item))
+         {
+            this.employees.add(item);
+         }
       }
       return this;
    }
@@ -136,19 +168,17 @@ public class University
 
    public University withoutEmployees(Person... value)
    {
-      for (final Person item : value)
-      {
-         this.withoutEmployees(item);
-      }
-      return this;
+      return this.withoutEmployees(Arrays.asList(value));
    }
 
    public University withoutEmployees(Collection<? extends Person> value)
    {
-      for (final Person item : value)
+      if (this.employees == null || value.isEmpty())
       {
-         this.withoutEmployees(item);
+         return this;
       }
+      final Set<Object> toRemove = new HashSet<>(value);
+      this.employees.removeIf(toRemove::contains);
       return this;
    }
 